@@ -2,8 +2,12 @@ package com.example.gigconnect;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableAsync(proxyTargetClass = true)
+@EnableScheduling
 public class GigconnectApplication {
 
 	public static void main(String[] args) {
@@ -4,7 +4,6 @@ import com.cloudinary.Cloudinary;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.web.client.RestTemplate;
 
 @Configuration
 public class CloudinaryConfig {
@@ -16,10 +15,5 @@ public class CloudinaryConfig {
     public Cloudinary getCloudinary() {
         return new Cloudinary(cloudinaryUrl);
     } 
-   
-    @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
-    }
 
 }
\ No newline at end of file
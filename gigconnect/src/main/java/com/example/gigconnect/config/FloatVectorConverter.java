@@ -0,0 +1,82 @@
+package com.example.gigconnect.config;
+
+import org.bson.types.Binary;
+import org.springframework.data.mongodb.core.convert.MongoConversionContext;
+import org.springframework.data.mongodb.core.convert.MongoValueConverter;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Maps an embedding held as {@code float[]} to and from MongoDB. Depending on the
+ * configured storage it is written either as a plain array of doubles or as a BSON
+ * binData "vector" (subtype 9) holding packed little-endian float32 values. Both
+ * forms are always readable, so documents can be migrated in the background.
+ */
+public class FloatVectorConverter implements MongoValueConverter<Object, Object> {
+
+    public static final byte VECTOR_SUBTYPE = 9;
+    private static final byte FLOAT32_DTYPE = 0x27;
+    private static final int HEADER_BYTES = 2;
+
+    private final boolean binary;
+
+    public FloatVectorConverter(boolean binary) {
+        this.binary = binary;
+    }
+
+    @Override
+    public float[] read(Object value, MongoConversionContext context) {
+        if (value instanceof Binary bin) {
+            return decode(bin);
+        }
+        if (value instanceof List<?> list) {
+            float[] out = new float[list.size()];
+            for (int i = 0; i < out.length; i++) {
+                out[i] = ((Number) list.get(i)).floatValue();
+            }
+            return out;
+        }
+        return null;
+    }
+
+    @Override
+    public Object write(Object value, MongoConversionContext context) {
+        // Query criteria on the field ($ne: null, $type, ...) are mapped through here as well
+        if (!(value instanceof float[] vector)) {
+            return value;
+        }
+        return binary ? encode(vector) : toDoubleList(vector);
+    }
+
+    public static Binary encode(float[] vector) {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + vector.length * Float.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.put(FLOAT32_DTYPE).put((byte) 0);
+        buffer.asFloatBuffer().put(vector);
+        return new Binary(VECTOR_SUBTYPE, buffer.array());
+    }
+
+    public static float[] decode(Binary binary) {
+        byte[] data = binary.getData();
+        if (binary.getType() != VECTOR_SUBTYPE || data.length < HEADER_BYTES || data[0] != FLOAT32_DTYPE) {
+            throw new IllegalArgumentException("Not a float32 vector: subtype " + binary.getType());
+        }
+        FloatBuffer floats = ByteBuffer.wrap(data, HEADER_BYTES, data.length - HEADER_BYTES)
+                .order(ByteOrder.LITTLE_ENDIAN)
+                .asFloatBuffer();
+        float[] out = new float[floats.remaining()];
+        floats.get(out);
+        return out;
+    }
+
+    public static List<Double> toDoubleList(float[] vector) {
+        List<Double> out = new ArrayList<>(vector.length);
+        for (float v : vector) {
+            out.add((double) v);
+        }
+        return out;
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.gigconnect.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+
+@Configuration
+public class HttpClientConfig {
+
+    @Value("${outbound.connect-timeout-ms:2000}")
+    private long connectTimeoutMs;
+
+    // One client for all outbound HTTP: it keeps connections alive and pools them per host. There is
+    // deliberately no RestTemplate bean; callers take theirs from OutboundTargets, so every call goes
+    // through its target's bulkhead and circuit breaker
+    @Bean
+    public HttpClient outboundHttpClient() {
+        return HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.gigconnect.config;
+
+import com.example.gigconnect.model.GigService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+
+@Configuration
+public class MongoConfig {
+
+    // "array" keeps the BSON array of doubles, "binary" packs vectors as float32 binData
+    @Value("${vector.storage:array}")
+    private String vectorStorage;
+
+    @Bean
+    public MongoCustomConversions mongoCustomConversions() {
+        FloatVectorConverter vectorConverter = new FloatVectorConverter(isBinaryVectorStorage());
+        return MongoCustomConversions.create(adapter -> adapter.configurePropertyConversions(registrar -> registrar
+                .registerConverter(GigService.class, "serviceVector", vectorConverter)
+                .registerConverter(GigService.class, "fallbackVector", vectorConverter)));
+    }
+
+    public boolean isBinaryVectorStorage() {
+        return "binary".equalsIgnoreCase(vectorStorage);
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.gigconnect.config;
+
+import com.example.gigconnect.model.EmbeddingTask;
+import com.example.gigconnect.model.GigService;
+import com.example.gigconnect.model.HireRequest;
+import com.example.gigconnect.model.SimilarServices;
+import com.example.gigconnect.model.User;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.SearchIndexModel;
+import com.mongodb.client.model.SearchIndexType;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Creates the indexes declared with @Indexed/@CompoundIndex on our documents,
+ * and optionally the Atlas vector search index. Automatic index creation is off
+ * in Spring Boot, and doing it here in the background keeps startup from
+ * blocking on the database.
+ */
+@Component
+public class MongoIndexInitializer {
+
+    private static final Logger logger = LoggerFactory.getLogger(MongoIndexInitializer.class);
+
+    private static final String VECTOR_INDEX = "default";
+
+    private static final List<Class<?>> INDEXED_DOCUMENTS = List.of(EmbeddingTask.class, GigService.class, HireRequest.class, SimilarServices.class, User.class);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private MongoMappingContext mappingContext;
+
+    @Value("${vector.backend:atlas}")
+    private String vectorBackend;
+
+    // 0 leaves the Atlas vector index alone; set it to the embedding size to manage the index from here
+    @Value("${vector.atlas.index-dimensions:0}")
+    private int vectorIndexDimensions;
+
+    // Size of the fallback embedder's vectors, indexed alongside so searches work while the primary is down
+    @Value("${vector.atlas.fallback-index-dimensions:${embedding.local.dimensions:384}}")
+    private int fallbackIndexDimensions;
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureIndexes() {
+        MongoPersistentEntityIndexResolver resolver = new MongoPersistentEntityIndexResolver(mappingContext);
+        for (Class<?> type : INDEXED_DOCUMENTS) {
+            try {
+                IndexOperations indexOps = mongoTemplate.indexOps(type);
+                resolver.resolveIndexFor(type).forEach(indexOps::ensureIndex);
+            } catch (Exception e) {
+                logger.error("Failed to create indexes for {}: {}", type.getSimpleName(), e.getMessage());
+            }
+        }
+        if ("atlas".equals(vectorBackend) && vectorIndexDimensions > 0) {
+            try {
+                ensureVectorSearchIndex();
+            } catch (Exception e) {
+                logger.error("Failed to update the Atlas vector search index: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Creates or updates the "default" Atlas vector index on services over both
+     * vector fields, declaring the worker fields and embedding model that
+     * $vectorSearch uses as pre-filters.
+     */
+    private void ensureVectorSearchIndex() {
+        List<Document> fields = new ArrayList<>(List.of(
+                new Document("type", "vector")
+                        .append("path", "serviceVector")
+                        .append("numDimensions", vectorIndexDimensions)
+                        .append("similarity", "cosine"),
+                new Document("type", "filter").append("path", "workerCity"),
+                new Document("type", "filter").append("path", "workerState"),
+                new Document("type", "filter").append("path", "workerSkills"),
+                new Document("type", "filter").append("path", "workerOpenToWork"),
+                new Document("type", "filter").append("path", "embeddingModel")));
+        if (fallbackIndexDimensions > 0) {
+            fields.add(new Document("type", "vector")
+                    .append("path", "fallbackVector")
+                    .append("numDimensions", fallbackIndexDimensions)
+                    .append("similarity", "cosine"));
+        }
+        Document definition = new Document("fields", fields);
+        MongoCollection<Document> services = mongoTemplate.getCollection("services");
+        if (services.listSearchIndexes().name(VECTOR_INDEX).first() != null) {
+            services.updateSearchIndex(VECTOR_INDEX, definition);
+        } else {
+            services.createSearchIndexes(List.of(new SearchIndexModel(VECTOR_INDEX, definition, SearchIndexType.vectorSearch())));
+        }
+        logger.info("Atlas vector search index '{}' is up to date", VECTOR_INDEX);
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.gigconnect.config;
+
+import com.example.gigconnect.service.OutboundTarget;
+import com.example.gigconnect.service.OutboundTargets;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * /actuator/outbound: circuit state, calls in flight and call counts per
+ * external service.
+ */
+@Component
+@Endpoint(id = "outbound")
+public class OutboundEndpoint {
+
+    private final OutboundTargets outboundTargets;
+
+    public OutboundEndpoint(OutboundTargets outboundTargets) {
+        this.outboundTargets = outboundTargets;
+    }
+
+    @ReadOperation
+    public Map<String, Map<String, Object>> targets() {
+        Map<String, Map<String, Object>> targets = new TreeMap<>();
+        for (OutboundTarget target : outboundTargets.all()) {
+            targets.put(target.name(), target.describe());
+        }
+        return targets;
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.gigconnect.config;
+
+import com.example.gigconnect.search.SimilarityKernels;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.task.ThreadPoolTaskExecutorBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class SearchConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(SearchConfig.class);
+
+    @Value("${search.executor.threads:8}")
+    private int threads;
+
+    @Value("${recommendations.similar.threads:2}")
+    private int similarServicesThreads;
+
+    // Deployments started without the module silently lose SIMD otherwise
+    @PostConstruct
+    void logSimilarityKernel() {
+        logger.info("Vector similarity kernel: {}", SimilarityKernels.description());
+    }
+
+    // Any Executor bean makes Boot skip its own, so declare it here under Boot's names. @Async and
+    // background jobs run on it (spring.task.execution.*), never on the search pool. Shutdown does
+    // not wait for them: they are interrupted, and the long ones resume from their checkpoints.
+    @Bean(name = {"applicationTaskExecutor", "taskExecutor"})
+    public ThreadPoolTaskExecutor applicationTaskExecutor(ThreadPoolTaskExecutorBuilder builder) {
+        ThreadPoolTaskExecutor executor = builder.build();
+        executor.setAcceptTasksAfterContextClose(true);
+        return executor;
+    }
+
+    // Runs the independent retrievers of one search request in parallel; inject it by qualifier
+    @Bean
+    public ThreadPoolTaskExecutor searchExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setThreadNamePrefix("search-");
+        return executor;
+    }
+
+    // Recomputes similar-service lists, so the background refresh never competes with live searches
+    @Bean
+    public ThreadPoolTaskExecutor similarServicesExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(similarServicesThreads);
+        executor.setMaxPoolSize(similarServicesThreads);
+        executor.setThreadNamePrefix("similar-");
+        return executor;
+    }
+}
@@ -46,6 +46,7 @@ public class SecurityConfig {
                 .requestMatchers("/api/users/register", "/api/users/login").permitAll()
                 .requestMatchers(HttpMethod.GET, "/api/services", "/api/services/**").permitAll()
                 .requestMatchers(HttpMethod.GET, "/api/users/*/profile").permitAll()
+                .requestMatchers(HttpMethod.GET, "/api/users/profiles").permitAll()
                 .requestMatchers(HttpMethod.GET, "/api/services/search").permitAll()
                 .requestMatchers("/api/payments/verify-payment").permitAll()
                 .requestMatchers("/api/files/upload").authenticated() // Secure the upload endpoint
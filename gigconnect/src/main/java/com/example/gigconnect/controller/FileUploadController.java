@@ -2,6 +2,7 @@ package com.example.gigconnect.controller;
 
 import com.cloudinary.Cloudinary;
 import com.cloudinary.utils.ObjectUtils;
+import com.example.gigconnect.service.OutboundTargets;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -18,10 +19,15 @@ public class FileUploadController {
     @Autowired
     private Cloudinary cloudinary;
 
+    @Autowired
+    private OutboundTargets outboundTargets;
+
     @PostMapping("/upload")
     public ResponseEntity<Map> uploadFile(@RequestParam("file") MultipartFile file) {
         try {
-            Map uploadResult = cloudinary.uploader().upload(file.getBytes(), ObjectUtils.emptyMap());
+            byte[] bytes = file.getBytes();
+            Map uploadResult = outboundTargets.target("cloudinary")
+                    .call(() -> cloudinary.uploader().upload(bytes, ObjectUtils.emptyMap()));
             return new ResponseEntity<>(uploadResult, HttpStatus.OK);
         } catch (IOException e) {
             e.printStackTrace();
@@ -1,10 +1,19 @@
 package com.example.gigconnect.controller;
 
+import com.example.gigconnect.dto.BackfillStatusDTO;
+import com.example.gigconnect.dto.FacetedSearchDTO;
+import com.example.gigconnect.dto.ProfilePageDTO;
 import com.example.gigconnect.dto.PublicUserProfileDTO;
+import com.example.gigconnect.dto.SemanticQueryDTO;
+import com.example.gigconnect.dto.VectorRecallReportDTO;
 import com.example.gigconnect.model.GigService;
 import com.example.gigconnect.model.User;
 import com.example.gigconnect.service.GigServiceService;
+import com.example.gigconnect.service.SimilarServicesService;
 import com.example.gigconnect.service.UserService;
+import com.example.gigconnect.service.VectorBackfillJob;
+import com.example.gigconnect.service.VectorStorageMigrationService;
+import com.example.gigconnect.service.WorkerFieldsService;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -21,6 +30,7 @@ import java.util.List;
 public class GigServiceController {
 
     private static final Logger logger = LoggerFactory.getLogger(GigServiceController.class);
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
 
     @Autowired
     private GigServiceService gigServiceService;
@@ -28,6 +38,18 @@ public class GigServiceController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private VectorStorageMigrationService vectorStorageMigrationService;
+
+    @Autowired
+    private VectorBackfillJob vectorBackfillJob;
+
+    @Autowired
+    private WorkerFieldsService workerFieldsService;
+
+    @Autowired
+    private SimilarServicesService similarServicesService;
+
     @PostMapping
     public ResponseEntity<GigService> createService(@Valid @RequestBody GigService service, Authentication authentication) {
         try {
@@ -91,18 +113,49 @@ public class GigServiceController {
         }
     }
 
+@GetMapping("/suggest")
+public ResponseEntity<List<String>> suggest(@RequestParam String prefix,
+                                            @RequestParam(required = false) Integer limit) {
+    try {
+        return ResponseEntity.ok(gigServiceService.suggest(prefix, limit));
+    } catch (RuntimeException e) {
+        logger.error("Failed to suggest for prefix {}: {}", prefix, e.getMessage());
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
+    }
+}
+
+// With facets=true the body is a FacetedSearchDTO envelope (hits, next cursor and facet counts for
+// filter sidebars) instead of the bare list, and a blank or missing keyword matches every worker
 @GetMapping("/search")
-public ResponseEntity<List<PublicUserProfileDTO>> searchServices(
-        @RequestParam String keyword,
+public ResponseEntity<?> searchServices(
+        @RequestParam(required = false) String keyword,
         @RequestParam(required = false) String city,
         @RequestParam(required = false) String state,
         @RequestParam(required = false) List<String> skills,
+        @RequestParam(required = false) Boolean openToWork,
+        @RequestParam(required = false) Integer pageSize,
+        @RequestParam(required = false) String cursor,
+        @RequestParam(defaultValue = "false") boolean facets,
         Authentication authentication) {
-    logger.debug("Searching services with keyword: {}, city: {}, state: {}, skills: {}", keyword, city, state,
-            skills);
+    logger.debug("Searching services with keyword: {}, city: {}, state: {}, skills: {}, facets: {}", keyword, city,
+            state, skills, facets);
     try {
-        List<PublicUserProfileDTO> profiles = userService.searchGigWorkers(keyword, city, state, skills);
-        return ResponseEntity.ok(profiles);
+        if (facets) {
+            FacetedSearchDTO result = userService.searchGigWorkersFaceted(keyword == null ? "" : keyword, city, state,
+                    skills, openToWork, pageSize, cursor);
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            if (result.getNextCursor() != null) {
+                response.header(NEXT_CURSOR_HEADER, result.getNextCursor());
+            }
+            return response.body(result);
+        }
+        if (keyword == null) {
+            throw new IllegalArgumentException("keyword is required");
+        }
+        return pageResponse(userService.searchGigWorkers(keyword, city, state, skills, openToWork, pageSize, cursor));
+    } catch (IllegalArgumentException e) {
+        logger.warn("Rejected search request: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(null);
     } catch (RuntimeException e) {
         logger.error("Failed to search services: {}", e.getMessage());
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
@@ -115,18 +168,91 @@ public ResponseEntity<List<PublicUserProfileDTO>> searchServicesSemantic(
         @RequestParam String keyword,
         @RequestParam(required = false) String city,
         @RequestParam(required = false) String state,
-        @RequestParam(required = false) List<String> skills) {
+        @RequestParam(required = false) List<String> skills,
+        @RequestParam(required = false) Boolean openToWork,
+        @RequestParam(required = false) Integer pageSize,
+        @RequestParam(required = false) String cursor) {
 
     logger.debug("Semantic search request received: {}", keyword);
     try {
-        List<PublicUserProfileDTO> profiles = userService.searchGigWorkersSemantic(keyword, city, state, skills);
-        return ResponseEntity.ok(profiles);
+        return pageResponse(userService.searchGigWorkersSemantic(keyword, city, state, skills, openToWork, pageSize, cursor));
+    } catch (IllegalArgumentException e) {
+        logger.warn("Rejected semantic search request: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(null);
     } catch (RuntimeException e) {
         logger.error("Failed to semantic search services: {}", e.getMessage());
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
     }
 } 
-// TEMPORARY ADMIN ENDPOINT
+
+// One page per query, in request order; each page carries its own next cursor. Needs a signed-in user,
+// since one request can fan out to many vectorizer calls
+@PostMapping("/search-semantic/batch")
+public ResponseEntity<List<ProfilePageDTO>> searchServicesSemanticBatch(@RequestBody List<SemanticQueryDTO> queries) {
+    logger.debug("Semantic batch search request received: {} queries", queries.size());
+    try {
+        return ResponseEntity.ok(userService.searchGigWorkersSemanticBatch(queries));
+    } catch (IllegalArgumentException e) {
+        logger.warn("Rejected semantic batch search request: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(null);
+    } catch (RuntimeException e) {
+        logger.error("Failed to run semantic batch search: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
+    }
+}
+// The body stays a plain list; the cursor for the next page travels in a header
+private ResponseEntity<List<PublicUserProfileDTO>> pageResponse(ProfilePageDTO page) {
+    ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+    if (page.getNextCursor() != null) {
+        response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+    }
+    return response.body(page.getItems());
+}
+
+@GetMapping("/search-hybrid")
+public ResponseEntity<List<PublicUserProfileDTO>> searchServicesHybrid(
+        @RequestParam String keyword,
+        @RequestParam(required = false) String city,
+        @RequestParam(required = false) String state,
+        @RequestParam(required = false) List<String> skills,
+        @RequestParam(required = false) Boolean openToWork,
+        @RequestParam(required = false) Integer pageSize) {
+
+    logger.debug("Hybrid search request received: {}", keyword);
+    try {
+        List<PublicUserProfileDTO> profiles = userService.searchGigWorkersHybrid(keyword, city, state, skills, openToWork, pageSize);
+        return ResponseEntity.ok(profiles);
+    } catch (RuntimeException e) {
+        logger.error("Failed to hybrid search services: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
+    }
+}
+
+@GetMapping("/search-nearby")
+public ResponseEntity<List<PublicUserProfileDTO>> searchServicesNearby(
+        @RequestParam double lat,
+        @RequestParam double lng,
+        @RequestParam double radiusKm,
+        @RequestParam(required = false) String keyword,
+        @RequestParam(defaultValue = "false") boolean semantic,
+        @RequestParam(required = false) List<String> skills,
+        @RequestParam(required = false) Boolean openToWork,
+        @RequestParam(required = false) Integer pageSize) {
+
+    logger.debug("Nearby search request received: {}, {} within {} km", lat, lng, radiusKm);
+    try {
+        List<PublicUserProfileDTO> profiles = userService.searchNearbyWorkers(lat, lng, radiusKm, keyword, semantic, skills,
+                openToWork, pageSize);
+        return ResponseEntity.ok(profiles);
+    } catch (IllegalArgumentException e) {
+        logger.warn("Rejected nearby search request: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(null);
+    } catch (RuntimeException e) {
+        logger.error("Failed to search nearby services: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
+    }
+}
+
 @PostMapping("/admin/backfill-vectors") // Use POST for an action that changes data
 public ResponseEntity<String> backfillVectors(Authentication authentication) {
     // Get the currently logged-in user
@@ -138,10 +264,72 @@ public ResponseEntity<String> backfillVectors(Authentication authentication) {
         return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Not authorized");
     }
     
-    // Run the new, correct backfill method
-    String message = gigServiceService.backfillServiceVectors();
-    return ResponseEntity.ok(message);
+    // The job runs in the background; progress is reported by the status endpoint
+    if (!vectorBackfillJob.start()) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body("Backfill already running");
+    }
+    return ResponseEntity.accepted().body("Backfill started");
 } 
+
+@GetMapping("/admin/backfill-vectors/status")
+public ResponseEntity<BackfillStatusDTO> backfillStatus(Authentication authentication) {
+    // GET /api/services/** is public, so the caller may not be authenticated at all
+    if (authentication == null || !userService.getUserByEmail(authentication.getName()).getRole().equals("ADMIN")) {
+        return ResponseEntity.status(HttpStatus.FORBIDDEN).body(null);
+    }
+    return ResponseEntity.ok(vectorBackfillJob.getStatus());
+}
+
+@PostMapping("/admin/migrate-vector-storage")
+public ResponseEntity<String> migrateVectorStorage(Authentication authentication) {
+    User user = userService.getUserByEmail(authentication.getName());
+    if (!user.getRole().equals("ADMIN")) {
+        logger.warn("User {} tried to run vector storage migration without ADMIN role", user.getEmail());
+        return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Not authorized");
+    }
+    return ResponseEntity.ok(vectorStorageMigrationService.migrateServiceVectors());
+}
+@PostMapping("/admin/sync-worker-fields")
+public ResponseEntity<String> syncWorkerFields(Authentication authentication) {
+    User user = userService.getUserByEmail(authentication.getName());
+    if (!user.getRole().equals("ADMIN")) {
+        logger.warn("User {} tried to run worker field sync without ADMIN role", user.getEmail());
+        return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Not authorized");
+    }
+    return ResponseEntity.ok(workerFieldsService.resyncAll());
+}
+@GetMapping("/admin/vector-index/recall")
+public ResponseEntity<VectorRecallReportDTO> vectorIndexRecall(@RequestParam(defaultValue = "50") int sample,
+                                                               @RequestParam(defaultValue = "10") int k,
+                                                               Authentication authentication) {
+    // GET /api/services/** is public, so the caller may not be authenticated at all
+    if (authentication == null || !userService.getUserByEmail(authentication.getName()).getRole().equals("ADMIN")) {
+        return ResponseEntity.status(HttpStatus.FORBIDDEN).body(null);
+    }
+    try {
+        return ResponseEntity.ok(gigServiceService.vectorRecallReport(sample, k));
+    } catch (IllegalArgumentException e) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(null);
+    } catch (IllegalStateException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(null);
+    } catch (RuntimeException e) {
+        logger.error("Failed to compute the vector index recall report: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
+    }
+}
+
+@PostMapping("/admin/rebuild-similar")
+public ResponseEntity<String> rebuildSimilarServices(Authentication authentication) {
+    User user = userService.getUserByEmail(authentication.getName());
+    if (!user.getRole().equals("ADMIN")) {
+        logger.warn("User {} tried to rebuild similar services without ADMIN role", user.getEmail());
+        return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Not authorized");
+    }
+    if (!similarServicesService.startRebuild()) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body("Rebuild already running");
+    }
+    return ResponseEntity.accepted().body("Rebuild started");
+}
 @GetMapping("/{serviceId}/recommendations")
     public ResponseEntity<List<PublicUserProfileDTO>> getRecommendations(
             @PathVariable String serviceId) {
@@ -9,11 +9,14 @@ import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*; 
 import org.springframework.security.core.Authentication; // Correct import
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/users")
 public class UserController {
@@ -55,6 +58,18 @@ public class UserController {
         logger.debug("Public profile retrieved for userId: {}", id);
         return ResponseEntity.ok(profile);
     } 
+
+    // Comma-separated or repeated ids; profiles come back in the order asked for, 400 beyond profile.bulk.max-ids
+    @GetMapping("/profiles")
+    public ResponseEntity<List<PublicUserProfileDTO>> getPublicProfiles(@RequestParam List<String> ids) {
+        logger.debug("Received request to fetch {} public profiles", ids.size());
+        try {
+            return ResponseEntity.ok(userService.getPublicProfiles(ids));
+        } catch (IllegalArgumentException e) {
+            logger.warn("Rejected bulk profile request: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(null);
+        }
+    }
     // UserController.java
 @GetMapping("/me")
 public ResponseEntity<User> getCurrentUser(Authentication authentication) {
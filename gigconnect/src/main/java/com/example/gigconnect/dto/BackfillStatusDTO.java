@@ -0,0 +1,16 @@
+package com.example.gigconnect.dto;
+
+import lombok.Data;
+
+@Data
+public class BackfillStatusDTO {
+    private boolean running;
+    private String status;
+    private long processed;
+    private long updated;
+    private long failed;
+    private long remaining;
+    private double servicesPerSecond;
+    private Long etaSeconds; // null until a throughput is known
+    private String lastProcessedId;
+}
@@ -0,0 +1,15 @@
+package com.example.gigconnect.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@AllArgsConstructor
+public class FacetedSearchDTO {
+    private List<PublicUserProfileDTO> items;
+    private String nextCursor; // null on the last page
+    private Map<String, List<FacetCountDTO>> facets; // Facet name -> most frequent values
+}
@@ -0,0 +1,21 @@
+package com.example.gigconnect.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Data
+@AllArgsConstructor
+public class ProfilePageDTO {
+    private List<PublicUserProfileDTO> items;
+    private String nextCursor; // null on the last page
+
+    // Copies every profile, see PublicUserProfileDTO#copy
+    public ProfilePageDTO copy() {
+        return new ProfilePageDTO(items.stream().map(PublicUserProfileDTO::copy)
+                .collect(Collectors.toCollection(ArrayList::new)), nextCursor);
+    }
+}
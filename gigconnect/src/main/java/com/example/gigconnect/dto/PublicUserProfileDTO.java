@@ -4,7 +4,10 @@ import com.example.gigconnect.model.PortfolioEntry;
 import com.example.gigconnect.model.GigService;
 import lombok.Data;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 @Data
 public class PublicUserProfileDTO {
@@ -19,6 +22,36 @@ public class PublicUserProfileDTO {
     private List<ReviewDTO> reviews;
     private List<GigService> services;
     private boolean openToWork;
+    private Double score; // Relevance of the best matching service, set by semantic search
+    private Double distanceKm; // Set by nearby search
+    private Double rankScore; // Combined re-ranking score, see SearchReranker
+    private Map<String, Double> rankSignals; // Weighted contribution of each signal to rankScore
+
+    /**
+     * A copy whose fields, arrays and lists can be changed without affecting this
+     * profile, for handing out cached profiles. The reviews and services in the
+     * lists are shared and must be treated as read-only.
+     */
+    public PublicUserProfileDTO copy() {
+        PublicUserProfileDTO copy = new PublicUserProfileDTO();
+        copy.id = id;
+        copy.name = name;
+        copy.city = city;
+        copy.state = state;
+        copy.skills = skills == null ? null : skills.clone();
+        copy.portfolio = portfolio == null ? null : portfolio.clone();
+        copy.mediaUrls = mediaUrls == null ? null : mediaUrls.clone();
+        copy.averageRating = averageRating;
+        copy.reviews = reviews == null ? null : new ArrayList<>(reviews);
+        copy.services = services == null ? null : new ArrayList<>(services);
+        copy.openToWork = openToWork;
+        copy.score = score;
+        copy.distanceKm = distanceKm;
+        copy.rankScore = rankScore;
+        copy.rankSignals = rankSignals == null ? null : new LinkedHashMap<>(rankSignals);
+        return copy;
+    }
+
     @Data
     public static class ReviewDTO {
         private String comment;
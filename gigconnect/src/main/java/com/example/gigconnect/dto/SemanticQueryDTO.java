@@ -0,0 +1,20 @@
+package com.example.gigconnect.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * One query of a batch semantic search; the fields mirror the parameters of
+ * GET /api/services/search-semantic.
+ */
+@Data
+public class SemanticQueryDTO {
+    private String keyword;
+    private String city;
+    private String state;
+    private List<String> skills;
+    private Boolean openToWork;
+    private Integer pageSize;
+    private String cursor;
+}
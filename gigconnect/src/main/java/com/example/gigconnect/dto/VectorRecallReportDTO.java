@@ -0,0 +1,19 @@
+package com.example.gigconnect.dto;
+
+import lombok.Data;
+
+@Data
+public class VectorRecallReportDTO {
+    private boolean quantized;
+    private int vectors;
+    private int dimensions;
+    private long indexBytes; // Estimated heap of the graph, vectors and links
+    private long floatVectorBytes; // What the vectors alone take as float32
+    private long int8VectorBytes; // What the vectors alone take as int8 codes plus scales
+    private long memoryBudgetBytes;
+    private int sampleSize;
+    private int k;
+    private int rerankFactor;
+    private double recallApproximate; // Overlap with the exact top k before re-ranking
+    private double recallReranked; // Overlap with the exact top k as served
+}
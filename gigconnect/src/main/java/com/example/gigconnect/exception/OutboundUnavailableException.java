@@ -0,0 +1,12 @@
+package com.example.gigconnect.exception;
+
+/**
+ * Thrown instead of calling an external service whose circuit is open or whose
+ * bulkhead is full.
+ */
+public class OutboundUnavailableException extends RuntimeException {
+
+    public OutboundUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.gigconnect.model;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+// Outbox entry asking the background worker to (re)embed one service
+@Data
+@Document(collection = "embedding_outbox")
+@CompoundIndex(name = "status_nextAttemptAt", def = "{'status': 1, 'nextAttemptAt': 1}")
+public class EmbeddingTask {
+    @Id
+    private String id; // The service id, so repeated edits collapse into one task
+    private String status; // PENDING, PROCESSING, FAILED
+    private long revision; // Bumped on every enqueue so a worker never removes a newer request
+    private int attempts;
+    private LocalDateTime nextAttemptAt;
+    private LocalDateTime lockedUntil;
+    private String lastError;
+    private LocalDateTime createdAt;
+}
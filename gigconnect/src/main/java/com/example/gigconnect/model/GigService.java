@@ -2,10 +2,10 @@ package com.example.gigconnect.model;
 
 import lombok.Data;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Positive; 
-import java.util.List;
 
 @Data
 @Document(collection = "services")
@@ -20,6 +20,15 @@ public class GigService {
     private double price;
     @NotBlank(message = "Category is required")
     private String category;
+    @Indexed
     private String userId; // Links to GIG_WORKER, set by the service layer 
-    private List<Double> serviceVector;
+    private float[] serviceVector; // Stored as a double array or packed float32 binData, see MongoConfig
+    private String embeddingModel; // Embedder that produced serviceVector; only vectors of one model are compared
+    private float[] fallbackVector; // Fallback embedder's vector, searched while the primary embedder is down
+    // Copied from the owning worker (normalized, see SearchFilters) so vector search can pre-filter on them
+    private String workerCity;
+    private String workerState;
+    private String[] workerSkills;
+    private boolean workerOpenToWork;
+    private String contentHash; // Hash of the title and description serviceVector was computed from
 }
\ No newline at end of file
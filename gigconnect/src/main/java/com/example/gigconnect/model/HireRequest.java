@@ -2,6 +2,7 @@ package com.example.gigconnect.model;
 
 import lombok.Data;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Positive;
@@ -9,6 +10,7 @@ import jakarta.validation.constraints.Positive;
 // HireRequest.java
 @Data
 @Document(collection = "hire_requests")
+@CompoundIndex(name = "client_worker_service", def = "{'clientId': 1, 'gigWorkerId': 1, 'serviceId': 1}")
 public class HireRequest {
     @Id
     private String id;
@@ -0,0 +1,21 @@
+package com.example.gigconnect.model;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+@Data
+@Document(collection = "job_checkpoints")
+public class JobCheckpoint {
+    @Id
+    private String id; // Job name
+    private String status; // RUNNING, FAILED, COMPLETED
+    private String lastProcessedId; // Highest _id fully handled, the next run continues after it
+    private long processed;
+    private long updated;
+    private long failed;
+    private LocalDateTime startedAt;
+    private LocalDateTime updatedAt;
+}
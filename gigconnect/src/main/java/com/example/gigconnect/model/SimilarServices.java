@@ -0,0 +1,36 @@
+package com.example.gigconnect.model;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Materialized nearest neighbours of one service by vector similarity, so
+ * recommendations are a read instead of a vector query per page view.
+ */
+@Data
+@Document(collection = "similar_services")
+@CompoundIndex(name = "neighbor_service", def = "{'neighbors.serviceId': 1}")
+public class SimilarServices {
+    @Id
+    private String id; // Service id
+    private String userId; // Owner of the service, never recommended for it
+    private List<Neighbor> neighbors; // Most similar first
+    private String vectorHash; // contentHash and model of the vector the list was computed from
+    @Indexed
+    private boolean stale; // Needs recomputing
+    private long revision; // Bumped whenever it is marked stale
+    private LocalDateTime computedAt;
+
+    @Data
+    public static class Neighbor {
+        private String serviceId;
+        private String userId;
+        private double score;
+    }
+}
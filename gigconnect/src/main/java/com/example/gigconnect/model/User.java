@@ -2,6 +2,8 @@ package com.example.gigconnect.model;
 
 import lombok.Data;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.GeoSpatialIndexType;
+import org.springframework.data.mongodb.core.index.GeoSpatialIndexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
@@ -24,11 +26,14 @@ public class User {
     private String role; // GIG_WORKER, CLIENT, ADMIN
     private String city; // e.g., Amravati, Solapur
     private String state; // e.g., Maharashtra
+    @GeoSpatialIndexed(type = GeoSpatialIndexType.GEO_2DSPHERE)
     private double[] location; // [longitude, latitude]
     private String[] skills; // For gig workers
     private PortfolioEntry[] portfolio; // Previous work
     private String[] mediaUrls; // Image URLs
     private List<Review> reviews; // List of reviews and ratings
+    private int reviewCount; // Maintained with reviews, so the average is ratingSum / reviewCount
+    private long ratingSum;
 private boolean openToWork; // New field
     @Data
     public static class Review {
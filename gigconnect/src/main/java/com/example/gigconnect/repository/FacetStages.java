@@ -0,0 +1,111 @@
+package com.example.gigconnect.repository;
+
+import com.example.gigconnect.search.SearchFilters;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.query.Criteria;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Facets of the worker search. Every facet counts distinct workers, and the
+ * worker facets read the fields copied onto each service, so all of them are
+ * computed from the services collection without joining users.
+ */
+final class FacetStages {
+
+    static final String CATEGORY = "category";
+    static final String PRICE = "priceRange";
+    static final String CITY = "city";
+    static final String STATE = "state";
+    static final String SKILLS = "skills";
+
+    static final List<String> FACETS = List.of(CATEGORY, PRICE, CITY, STATE, SKILLS);
+
+    // Upper bounds of the price buckets; anything above the last one is "10000+"
+    private static final double[] PRICE_BOUNDS = {500, 1000, 2500, 5000, 10000};
+
+    private FacetStages() {
+    }
+
+    static String priceBucket(double price) {
+        double lower = 0;
+        for (double bound : PRICE_BOUNDS) {
+            if (price < bound) {
+                return label(lower) + "-" + label(bound);
+            }
+            lower = bound;
+        }
+        return label(lower) + "+";
+    }
+
+    /**
+     * The search's worker filters expressed on the copied service fields.
+     */
+    static Criteria serviceCriteria(String city, String state, List<String> skills, Boolean openToWork) {
+        List<Criteria> criteria = new ArrayList<>();
+        if (city != null && !city.isEmpty()) {
+            criteria.add(Criteria.where("workerCity").regex(city, "i"));
+        }
+        if (state != null && !state.isEmpty()) {
+            criteria.add(Criteria.where("workerState").regex(state, "i"));
+        }
+        if (skills != null && !skills.isEmpty()) {
+            criteria.add(Criteria.where("workerSkills").in(SearchFilters.normalize(skills)));
+        }
+        if (openToWork != null) {
+            criteria.add(Criteria.where("workerOpenToWork").is(openToWork));
+        }
+        return criteria.isEmpty() ? new Criteria() : new Criteria().andOperator(criteria.toArray(new Criteria[0]));
+    }
+
+    /**
+     * One sub-pipeline per facet, for use in a $facet stage over matching services.
+     * Each yields documents of {_id: value, count: workers}, most frequent first.
+     */
+    static Map<String, List<Document>> facetPipelines(Criteria filter, int maxValues) {
+        Map<String, List<Document>> pipelines = new LinkedHashMap<>();
+        pipelines.put(CATEGORY, countWorkers(filter, null, "$category", maxValues));
+        pipelines.put(PRICE, countWorkers(filter, null, priceBucketExpression(), maxValues));
+        pipelines.put(CITY, countWorkers(filter, null, "$workerCity", maxValues));
+        pipelines.put(STATE, countWorkers(filter, null, "$workerState", maxValues));
+        pipelines.put(SKILLS, countWorkers(filter, "workerSkills", "$workerSkills", maxValues));
+        return pipelines;
+    }
+
+    private static List<Document> countWorkers(Criteria filter, String unwind, Object value, int maxValues) {
+        List<AggregationOperation> operations = new ArrayList<>();
+        operations.add(Aggregation.match(filter));
+        if (unwind != null) {
+            operations.add(Aggregation.unwind(unwind));
+        }
+        operations.add(context -> new Document("$group", new Document("_id",
+                new Document("value", value).append("worker", "$userId"))));
+        operations.add(context -> new Document("$group", new Document("_id", "$_id.value")
+                .append("count", new Document("$sum", 1))));
+        operations.add(Aggregation.match(Criteria.where("_id").ne(null)));
+        operations.add(context -> new Document("$sort", new Document("count", -1).append("_id", 1)));
+        operations.add(Aggregation.limit(maxValues));
+        return Aggregation.newAggregation(operations).toPipeline(Aggregation.DEFAULT_CONTEXT);
+    }
+
+    // Same buckets as priceBucket(double), evaluated on the server
+    private static Document priceBucketExpression() {
+        List<Document> branches = new ArrayList<>();
+        double lower = 0;
+        for (double bound : PRICE_BOUNDS) {
+            branches.add(new Document("case", new Document("$lt", List.of("$price", bound)))
+                    .append("then", label(lower) + "-" + label(bound)));
+            lower = bound;
+        }
+        return new Document("$switch", new Document("branches", branches).append("default", label(lower) + "+"));
+    }
+
+    private static String label(double bound) {
+        return String.valueOf((long) bound);
+    }
+}
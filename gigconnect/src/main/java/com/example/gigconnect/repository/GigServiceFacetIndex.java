@@ -0,0 +1,184 @@
+package com.example.gigconnect.repository;
+
+import com.example.gigconnect.model.GigService;
+import com.example.gigconnect.model.User;
+import com.example.gigconnect.search.FacetCounts;
+import com.example.gigconnect.search.SearchFilters;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Facet counts of the unfiltered search (every worker with a service), which is
+ * what a filter sidebar shows before anything is typed. Loaded once the
+ * application is ready, then kept current from service and user writes: a write
+ * only recounts the one worker it belongs to.
+ */
+@Component
+@ConditionalOnProperty(name = "search.facets.snapshot-enabled", havingValue = "true", matchIfMissing = true)
+public class GigServiceFacetIndex extends AbstractMongoEventListener<GigService> {
+
+    private static final Logger logger = LoggerFactory.getLogger(GigServiceFacetIndex.class);
+
+    private record ServiceFacets(String owner, String category, String priceBucket) {
+    }
+
+    private record WorkerFacets(String city, String state, List<String> skills) {
+    }
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    private final FacetCounts counts = new FacetCounts();
+    private final Map<String, ServiceFacets> services = new HashMap<>();
+    private final Map<String, Set<String>> servicesByOwner = new HashMap<>();
+    private final Map<String, WorkerFacets> workers = new HashMap<>();
+    private final Set<String> changedWhileLoading = ConcurrentHashMap.newKeySet();
+    private volatile boolean loading;
+    private volatile boolean ready;
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        logger.info("Loading service facets...");
+        long start = System.currentTimeMillis();
+        loading = true;
+        Query query = new Query();
+        query.fields().include("userId").include("category").include("price")
+                .include("workerCity").include("workerState").include("workerSkills");
+        try (Stream<GigService> all = mongoTemplate.stream(query, GigService.class)) {
+            all.forEach(service -> {
+                // Live writes that happened during the load are newer than what the cursor returns
+                if (!changedWhileLoading.contains(service.getId())) {
+                    put(service);
+                }
+            });
+            ready = true;
+            logger.info("Facet snapshot loaded {} workers in {} ms", counts.owners(), System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            logger.error("Failed to load service facets: {}", e.getMessage());
+        } finally {
+            loading = false;
+            changedWhileLoading.clear();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * The facet's most frequent values across all workers.
+     */
+    public List<FacetCounts.Count> top(String facet, int maxValues) {
+        return counts.top(facet, maxValues);
+    }
+
+    @Override
+    public void onAfterSave(AfterSaveEvent<GigService> event) {
+        GigService service = event.getSource();
+        if (loading) {
+            changedWhileLoading.add(service.getId());
+        }
+        put(service);
+    }
+
+    @Override
+    public void onAfterDelete(AfterDeleteEvent<GigService> event) {
+        Object id = event.getSource().get("_id");
+        if (id != null && !(id instanceof Document)) {
+            if (loading) {
+                changedWhileLoading.add(id.toString());
+            }
+            remove(id.toString());
+        }
+    }
+
+    // Worker fields on services are copies; a profile change is seen here before the copies are rewritten
+    @EventListener
+    public synchronized void onUserSaved(AfterSaveEvent<?> event) {
+        if (event.getSource() instanceof User user && servicesByOwner.containsKey(user.getId())) {
+            workers.put(user.getId(), new WorkerFacets(SearchFilters.normalize(user.getCity()),
+                    SearchFilters.normalize(user.getState()),
+                    SearchFilters.normalize(user.getSkills() == null ? null : Arrays.asList(user.getSkills()))));
+            recount(user.getId());
+        }
+    }
+
+    private synchronized void put(GigService service) {
+        if (service.getUserId() == null) {
+            return;
+        }
+        ServiceFacets old = services.put(service.getId(), new ServiceFacets(service.getUserId(), service.getCategory(),
+                FacetStages.priceBucket(service.getPrice())));
+        if (old != null && !old.owner().equals(service.getUserId())) {
+            detach(service.getId(), old.owner());
+        }
+        servicesByOwner.computeIfAbsent(service.getUserId(), o -> new HashSet<>()).add(service.getId());
+        workers.put(service.getUserId(), new WorkerFacets(service.getWorkerCity(), service.getWorkerState(),
+                service.getWorkerSkills() == null ? List.of() : Arrays.asList(service.getWorkerSkills())));
+        recount(service.getUserId());
+    }
+
+    private synchronized void remove(String serviceId) {
+        ServiceFacets old = services.remove(serviceId);
+        if (old != null) {
+            detach(serviceId, old.owner());
+        }
+    }
+
+    private void detach(String serviceId, String owner) {
+        Set<String> owned = servicesByOwner.get(owner);
+        if (owned != null) {
+            owned.remove(serviceId);
+            if (owned.isEmpty()) {
+                servicesByOwner.remove(owner);
+                workers.remove(owner);
+            }
+        }
+        recount(owner);
+    }
+
+    private void recount(String owner) {
+        Set<String> owned = servicesByOwner.get(owner);
+        if (owned == null) {
+            counts.remove(owner);
+            return;
+        }
+        Set<String> categories = new HashSet<>();
+        Set<String> prices = new HashSet<>();
+        for (String serviceId : owned) {
+            ServiceFacets service = services.get(serviceId);
+            categories.add(service.category());
+            prices.add(service.priceBucket());
+        }
+        WorkerFacets worker = workers.get(owner);
+        Map<String, Set<String>> values = new HashMap<>();
+        values.put(FacetStages.CATEGORY, categories);
+        values.put(FacetStages.PRICE, prices);
+        values.put(FacetStages.CITY, worker.city() == null ? Set.of() : Set.of(worker.city()));
+        values.put(FacetStages.STATE, worker.state() == null ? Set.of() : Set.of(worker.state()));
+        values.put(FacetStages.SKILLS, new HashSet<>(worker.skills()));
+        counts.put(owner, values);
+    }
+}
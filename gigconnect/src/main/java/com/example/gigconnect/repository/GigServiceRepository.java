@@ -2,8 +2,8 @@ package com.example.gigconnect.repository;
 
 import com.example.gigconnect.model.GigService;
 import org.springframework.data.mongodb.repository.MongoRepository;
-import org.springframework.data.mongodb.repository.Query;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface GigServiceRepository extends MongoRepository<GigService, String>, 
@@ -12,9 +12,8 @@ public interface GigServiceRepository extends MongoRepository<GigService, String
     
     List<GigService> findByUserId(String userId);
 
-    @Query("{ $or: [ { 'title': { $regex: ?0, $options: 'i' } }, { 'category': { $regex: ?0, $options: 'i' } } ] }")
-    List<GigService> findByTitleOrCategory(String keyword);
+    List<GigService> findByUserIdIn(Collection<String> userIds);
 
-    @Query("{ 'userId': { $in: ?0 }, $or: [ { 'title': { $regex: ?1, $options: 'i' } }, { 'category': { $regex: ?1, $options: 'i' } } ] }")
-    List<GigService> findByUserIdsAndTitleOrCategory(List<String> userIds, String keyword);
+    // findByTitleOrCategory and findByUserIdsAndTitleOrCategory live in GigServiceRepositoryCustom,
+    // where they are answered from the in-memory text index
 }
\ No newline at end of file
@@ -1,8 +1,32 @@
 package com.example.gigconnect.repository;
 
-import com.example.gigconnect.model.User;
+import com.example.gigconnect.dto.FacetedSearchDTO;
+import com.example.gigconnect.dto.PublicUserProfileDTO;
+import com.example.gigconnect.model.GigService;
+import com.example.gigconnect.search.SearchCursor;
+
 import java.util.List;
 
 public interface GigServiceRepositoryCustom {
-    List<User> searchGigWorkers(String keyword, String city, String state, List<String> skills);
+    /**
+     * Workers with a service matching the keyword, ordered by worker id. Returns at
+     * most {@code limit} profiles after the cursor (null for the first page).
+     */
+    List<PublicUserProfileDTO> searchGigWorkers(String keyword, String city, String state, List<String> skills,
+                                                Boolean openToWork, SearchCursor after, int limit);
+
+    /**
+     * Like searchGigWorkers, plus the facet counts of everything the filters match
+     * (not just the page), computed in the same round trip. At most
+     * {@code maxFacetValues} values are returned per facet.
+     */
+    FacetedSearchDTO searchGigWorkersFaceted(String keyword, String city, String state, List<String> skills,
+                                             Boolean openToWork, SearchCursor after, int limit, int maxFacetValues);
+
+    // Ids of workers owning a service whose title or category contains the keyword
+    List<String> findWorkerIdsByKeyword(String keyword);
+
+    List<GigService> findByTitleOrCategory(String keyword);
+
+    List<GigService> findByUserIdsAndTitleOrCategory(List<String> userIds, String keyword);
 }
\ No newline at end of file
@@ -1,61 +1,164 @@
 package com.example.gigconnect.repository;
 
-import com.example.gigconnect.model.User;
+import com.example.gigconnect.dto.FacetCountDTO;
+import com.example.gigconnect.dto.FacetedSearchDTO;
+import com.example.gigconnect.dto.PublicUserProfileDTO;
+import com.example.gigconnect.model.GigService;
+import com.example.gigconnect.search.SearchCursor;
+import org.bson.Document;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.aggregation.Aggregation;
 import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
-import org.springframework.data.mongodb.core.aggregation.LookupOperation;
 import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
 
 public class GigServiceRepositoryCustomImpl implements GigServiceRepositoryCustom {
 
     @Autowired
     private MongoTemplate mongoTemplate;
 
+    @Autowired(required = false)
+    private GigServiceTextIndex textIndex;
+
+    @Autowired(required = false)
+    private GigServiceFacetIndex facetIndex;
+
     @Override
-    public List<User> searchGigWorkers(String keyword, String city, String state, List<String> skills) {
+    public List<PublicUserProfileDTO> searchGigWorkers(String keyword, String city, String state, List<String> skills,
+                                                       Boolean openToWork, SearchCursor after, int limit) {
+        // Match services by keyword
+        Criteria keywordMatch = keywordCriteria(keyword);
+        if (keywordMatch == null) {
+            return new ArrayList<>();
+        }
         List<AggregationOperation> operations = new ArrayList<>();
+        operations.add(Aggregation.match(keywordMatch));
+        operations.addAll(profilePage(city, state, skills, openToWork, after, limit));
+        return WorkerProfileStages.streamProfiles(mongoTemplate, operations, "services");
+    }
 
-        // Match services by keyword
-        operations.add(Aggregation.match(
-                Criteria.where("title").regex(keyword, "i")
-                        .orOperator(Criteria.where("category").regex(keyword, "i"))));
-
-        // Join with the users collection
-        LookupOperation lookupOperation = LookupOperation.newLookup()
-                .from("users")
-                .localField("userId")
-                .foreignField("_id")
-                .as("gigWorker");
-        operations.add(lookupOperation);
-
-        // Unwind the gigWorker array
-        operations.add(Aggregation.unwind("gigWorker"));
-        
-        // Filter the joined users
-        List<Criteria> userCriteria = new ArrayList<>();
-        userCriteria.add(Criteria.where("gigWorker.role").is("GIG_WORKER"));
-        if (city != null && !city.isEmpty()) {
-            userCriteria.add(Criteria.where("gigWorker.city").regex(city, "i"));
-        }
-        if (state != null && !state.isEmpty()) {
-            userCriteria.add(Criteria.where("gigWorker.state").regex(state, "i"));
-        }
-        if (skills != null && !skills.isEmpty()) {
-            userCriteria.add(Criteria.where("gigWorker.skills").in(skills));
-        }
-
-        operations.add(Aggregation.match(new Criteria().andOperator(userCriteria.toArray(new Criteria[0]))));
-        
-        // Replace the root with the gigWorker document
-        operations.add(Aggregation.replaceRoot("gigWorker"));
-
-        Aggregation aggregation = Aggregation.newAggregation(operations);
-
-        return mongoTemplate.aggregate(aggregation, "services", User.class).getMappedResults();
+    @Override
+    public FacetedSearchDTO searchGigWorkersFaceted(String keyword, String city, String state, List<String> skills,
+                                                    Boolean openToWork, SearchCursor after, int limit, int maxFacetValues) {
+        boolean unfiltered = (keyword == null || keyword.isBlank()) && (city == null || city.isEmpty())
+                && (state == null || state.isEmpty()) && (skills == null || skills.isEmpty()) && openToWork == null;
+        if (unfiltered && facetIndex != null && facetIndex.isReady()) {
+            Map<String, List<FacetCountDTO>> facets = new LinkedHashMap<>();
+            for (String facet : FacetStages.FACETS) {
+                facets.put(facet, facetIndex.top(facet, maxFacetValues).stream()
+                        .map(count -> new FacetCountDTO(count.value(), count.count()))
+                        .toList());
+            }
+            return new FacetedSearchDTO(searchGigWorkers(keyword, city, state, skills, openToWork, after, limit), null, facets);
+        }
+
+        Criteria keywordMatch = keywordCriteria(keyword);
+        if (keywordMatch == null) {
+            Map<String, List<FacetCountDTO>> facets = new LinkedHashMap<>();
+            FacetStages.FACETS.forEach(facet -> facets.put(facet, new ArrayList<>()));
+            return new FacetedSearchDTO(new ArrayList<>(), null, facets);
+        }
+
+        // The page and every facet branch from the same set of matching services
+        Document branches = new Document("hits", Aggregation.newAggregation(profilePage(city, state, skills, openToWork, after, limit))
+                .toPipeline(Aggregation.DEFAULT_CONTEXT));
+        FacetStages.facetPipelines(FacetStages.serviceCriteria(city, state, skills, openToWork), maxFacetValues)
+                .forEach(branches::append);
+        List<AggregationOperation> operations = List.of(
+                Aggregation.match(keywordMatch),
+                context -> new Document("$facet", branches));
+        Document result = mongoTemplate.aggregate(Aggregation.newAggregation(operations), "services", Document.class)
+                .getUniqueMappedResult();
+
+        List<PublicUserProfileDTO> items = new ArrayList<>();
+        Map<String, List<FacetCountDTO>> facets = new LinkedHashMap<>();
+        if (result != null) {
+            for (Document hit : result.getList("hits", Document.class)) {
+                items.add(mongoTemplate.getConverter().read(PublicUserProfileDTO.class, hit));
+            }
+        }
+        for (String facet : FacetStages.FACETS) {
+            List<FacetCountDTO> counts = new ArrayList<>();
+            if (result != null) {
+                for (Document count : result.getList(facet, Document.class)) {
+                    counts.add(new FacetCountDTO(String.valueOf(count.get("_id")), ((Number) count.get("count")).longValue()));
+                }
+            }
+            facets.put(facet, counts);
+        }
+        return new FacetedSearchDTO(items, null, facets);
+    }
+
+    // From matching services to one profile per worker, in _id order after the cursor
+    private List<AggregationOperation> profilePage(String city, String state, List<String> skills, Boolean openToWork,
+                                                   SearchCursor after, int limit) {
+        List<AggregationOperation> operations = new ArrayList<>();
+        // One row per worker, then join and filter the worker and attach their services
+        operations.add(Aggregation.group("userId"));
+        if (after != null) {
+            operations.add(Aggregation.match(Criteria.where("_id").gt(after.id())));
+        }
+        operations.add(Aggregation.sort(Sort.Direction.ASC, "_id"));
+        operations.addAll(WorkerProfileStages.joinWorker(city, state, skills, openToWork));
+        // Only the page itself gets its services looked up
+        operations.add(Aggregation.limit(limit));
+        operations.add(WorkerProfileStages.lookupServices("_id"));
+        operations.add(WorkerProfileStages.projectProfile("gigWorker."));
+        return operations;
+    }
+
+    @Override
+    public List<String> findWorkerIdsByKeyword(String keyword) {
+        Criteria criteria = keywordCriteria(keyword);
+        if (criteria == null) {
+            return new ArrayList<>();
+        }
+        return mongoTemplate.findDistinct(new Query(criteria), "userId", GigService.class, String.class);
+    }
+
+    @Override
+    public List<GigService> findByTitleOrCategory(String keyword) {
+        Criteria criteria = keywordCriteria(keyword);
+        return criteria == null ? new ArrayList<>() : mongoTemplate.find(new Query(criteria), GigService.class);
+    }
+
+    @Override
+    public List<GigService> findByUserIdsAndTitleOrCategory(List<String> userIds, String keyword) {
+        Criteria criteria = keywordCriteria(keyword);
+        if (criteria == null) {
+            return new ArrayList<>();
+        }
+        return mongoTemplate.find(new Query(criteria).addCriteria(Criteria.where("userId").in(userIds)), GigService.class);
+    }
+
+    /**
+     * Services whose title or category contains the keyword. Served from the text
+     * index as an _id lookup once it is loaded, otherwise by a regex scan. A blank
+     * keyword matches everything. Returns null when the index already knows nothing
+     * matches.
+     */
+    private Criteria keywordCriteria(String keyword) {
+        if (keyword == null || keyword.isBlank()) {
+            return new Criteria(); // No keyword: every service
+        }
+        if (textIndex == null || !textIndex.isReady()) {
+            return new Criteria().orOperator(
+                    Criteria.where("title").regex(Pattern.quote(keyword), "i"),
+                    Criteria.where("category").regex(Pattern.quote(keyword), "i"));
+        }
+        Set<String> ids = textIndex.findIdsByTitleOrCategory(keyword);
+        if (ids.isEmpty()) {
+            return null;
+        }
+        return Criteria.where("_id").in(WorkerProfileStages.objectIds(ids));
     }
-}
\ No newline at end of file
+}
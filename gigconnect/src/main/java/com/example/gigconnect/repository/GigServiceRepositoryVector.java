@@ -1,10 +1,29 @@
 package com.example.gigconnect.repository;
-import com.example.gigconnect.model.GigService;
-import com.example.gigconnect.model.User;
+import com.example.gigconnect.dto.PublicUserProfileDTO;
+import com.example.gigconnect.model.SimilarServices;
+import com.example.gigconnect.search.SearchCursor;
 import java.util.List;
 
 public interface GigServiceRepositoryVector {
-    List<User> searchGigWorkersByVector(List<Double> queryVector, String city, String state, List<String> skills); 
+    /**
+     * Workers whose services are closest to the query vector, best score first.
+     * Only vectors of {@code embeddingModel} (any model if null) are compared.
+     * City, state, skills and openToWork are exact (case-insensitive) pre-filters
+     * applied before nearest-neighbour ranking. Returns at most {@code limit}
+     * profiles after the cursor (null for the first page). Scores are
+     * (1 + cosine) / 2, in [0, 1], whatever the backend. With {@code fallbackVector}
+     * the query comes from the fallback embedder and is compared with every
+     * service's fallbackVector instead; {@code embeddingModel} is then ignored.
+     */
+    List<PublicUserProfileDTO> searchGigWorkersByVector(float[] queryVector, String embeddingModel, boolean fallbackVector,
+                                                        String city, String state, List<String> skills, Boolean openToWork,
+                                                        SearchCursor after, int limit);
 
-    List<GigService> findSimilarServices(List<Double> queryVector, String excludeServiceId);
+    /**
+     * The {@code k} services with an {@code embeddingModel} vector (any model if
+     * null) closest to the vector other than {@code excludeServiceId}, most similar
+     * first, scored like {@link #searchGigWorkersByVector}.
+     */
+    List<SimilarServices.Neighbor> findNearestServices(float[] queryVector, String embeddingModel, String excludeServiceId,
+                                                       int k);
 }
\ No newline at end of file
@@ -1,9 +1,14 @@
 package com.example.gigconnect.repository;
 
-import com.example.gigconnect.model.GigService;
-import com.example.gigconnect.model.User;
+import com.example.gigconnect.config.FloatVectorConverter;
+import com.example.gigconnect.dto.PublicUserProfileDTO;
+import com.example.gigconnect.model.SimilarServices;
+import com.example.gigconnect.search.SearchCursor;
+import com.example.gigconnect.search.SearchFilters;
 import org.bson.Document;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.aggregation.Aggregation;
 import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
@@ -18,67 +23,115 @@ public class GigServiceRepositoryVectorImpl implements GigServiceRepositoryVecto
     @Autowired
     private MongoTemplate mongoTemplate;
 
+    @Value("${search.semantic.top-k:100}")
+    private int topK;
+
+    @Value("${search.semantic.num-candidates:1000}")
+    private int numCandidates;
+
+    // Present only when vector.backend=hnsw; queries are then served in-process instead of by Atlas
+    @Autowired(required = false)
+    private HnswGigServiceRepositoryVector hnswBackend;
+
     @Override
-    public List<User> searchGigWorkersByVector(List<Double> queryVector, String city, String state, List<String> skills) {
+    public List<PublicUserProfileDTO> searchGigWorkersByVector(float[] queryVector, String embeddingModel,
+                                                               boolean fallbackVector, String city, String state,
+                                                               List<String> skills, Boolean openToWork,
+                                                               SearchCursor after, int limit) {
+        if (hnswBackend != null) {
+            return hnswBackend.searchGigWorkersByVector(queryVector, embeddingModel, fallbackVector, city, state, skills,
+                    openToWork, after, limit);
+        }
 
         List<AggregationOperation> operations = new ArrayList<>();
 
-        // Step 1: Use $vectorSearch (the new part)
-        Document vectorSearchStage = new Document("$vectorSearch",
-            new Document("index", "default") // "default" is the name of the index
-                .append("path", "serviceVector")
-                .append("queryVector", queryVector)
-                .append("numCandidates", 150) // How many records to check
-                .append("limit", 20)         // How many to return
-        );
+        // Step 1: Use $vectorSearch, pre-filtered on the worker fields copied onto each service
+        Document vectorSearch = new Document("index", "default") // "default" is the name of the index
+                .append("path", fallbackVector ? "fallbackVector" : "serviceVector")
+                .append("queryVector", FloatVectorConverter.toDoubleList(queryVector))
+                .append("numCandidates", Math.max(numCandidates, topK)) // How many records to check
+                .append("limit", topK);      // Pages are cut from these top hits
+        // Every fallback vector comes from the one fallback model; embeddingModel describes serviceVector
+        Document filter = workerFilter(fallbackVector ? null : embeddingModel, city, state, skills, openToWork);
+        if (filter != null) {
+            vectorSearch.append("filter", filter);
+        }
+        Document vectorSearchStage = new Document("$vectorSearch", vectorSearch);
         operations.add(context -> vectorSearchStage);
 
-        // Step 2: Your existing, unmodified aggregation logic
-        operations.add(Aggregation.lookup("users", "userId", "_id", "gigWorker"));
-        operations.add(Aggregation.unwind("gigWorker"));
+        // Step 2: One row per worker keeping their best score, then join and filter the
+        // worker and attach their services, all in the same round trip
+        operations.add(Aggregation.addFields().addFieldWithValue("score", new Document("$meta", "vectorSearchScore")).build());
+        operations.add(Aggregation.group("userId").max("score").as("score"));
+        if (after != null && after.score() != null) {
+            operations.add(Aggregation.match(WorkerProfileStages.afterScore(after)));
+        }
+        operations.add(Aggregation.sort(Sort.by(Sort.Direction.DESC, "score").and(Sort.by(Sort.Direction.ASC, "_id"))));
+        // The filters already ran inside $vectorSearch; the join only checks the role
+        operations.addAll(WorkerProfileStages.joinWorker(null, null, null, null));
+        operations.add(Aggregation.limit(limit));
+        operations.add(WorkerProfileStages.lookupServices("_id"));
+        operations.add(WorkerProfileStages.projectProfile("gigWorker."));
 
-        List<Criteria> userCriteria = new ArrayList<>();
-        userCriteria.add(Criteria.where("gigWorker.role").is("GIG_WORKER"));
-        if (city != null && !city.isEmpty()) {
-            userCriteria.add(Criteria.where("gigWorker.city").regex(city, "i"));
+        return WorkerProfileStages.streamProfiles(mongoTemplate, operations, "services");
+    } 
+
+    // $vectorSearch filters support exact matches only, hence the normalized copies
+    private static Document workerFilter(String embeddingModel, String city, String state, List<String> skills,
+                                         Boolean openToWork) {
+        List<Document> clauses = new ArrayList<>();
+        if (embeddingModel != null) {
+            clauses.add(new Document("embeddingModel", new Document("$eq", embeddingModel)));
         }
-        if (state != null && !state.isEmpty()) {
-            userCriteria.add(Criteria.where("gigWorker.state").regex(state, "i"));
+        String normalizedCity = SearchFilters.normalize(city);
+        if (normalizedCity != null) {
+            clauses.add(new Document("workerCity", new Document("$eq", normalizedCity)));
         }
-        if (skills != null && !skills.isEmpty()) {
-            userCriteria.add(Criteria.where("gigWorker.skills").in(skills));
+        String normalizedState = SearchFilters.normalize(state);
+        if (normalizedState != null) {
+            clauses.add(new Document("workerState", new Document("$eq", normalizedState)));
         }
-        operations.add(Aggregation.match(new Criteria().andOperator(userCriteria.toArray(new Criteria[0]))));
-
-        operations.add(Aggregation.replaceRoot("gigWorker"));
-
-        Aggregation aggregation = Aggregation.newAggregation(operations);
-        return mongoTemplate.aggregate(aggregation, "services", User.class).getMappedResults();
-    } 
+        List<String> normalizedSkills = SearchFilters.normalize(skills);
+        if (!normalizedSkills.isEmpty()) {
+            clauses.add(new Document("workerSkills", new Document("$in", normalizedSkills)));
+        }
+        if (openToWork != null) {
+            clauses.add(new Document("workerOpenToWork", new Document("$eq", openToWork)));
+        }
+        if (clauses.isEmpty()) {
+            return null;
+        }
+        return clauses.size() == 1 ? clauses.get(0) : new Document("$and", clauses);
+    }
 
-    // --- ADD THIS ENTIRE NEW METHOD ---
     @Override
-    public List<GigService> findSimilarServices(List<Double> queryVector, String excludeServiceId) {
+    public List<SimilarServices.Neighbor> findNearestServices(float[] queryVector, String embeddingModel,
+                                                              String excludeServiceId, int k) {
+        if (hnswBackend != null) {
+            return hnswBackend.findNearestServices(queryVector, embeddingModel, excludeServiceId, k);
+        }
         List<AggregationOperation> operations = new ArrayList<>();
 
-        // 1. Find the N most similar services using vector search
-        Document vectorSearchStage = new Document("$vectorSearch",
-            new Document("index", "default") // The name of your Atlas index
+        // One extra hit in case the service itself comes back
+        Document vectorSearch = new Document("index", "default")
                 .append("path", "serviceVector")
-                .append("queryVector", queryVector)
-                .append("numCandidates", 100) // Check 100 candidates
-                .append("limit", 15)         // Return top 15 similar
-        );
+                .append("queryVector", FloatVectorConverter.toDoubleList(queryVector))
+                .append("numCandidates", Math.max(numCandidates, k + 1))
+                .append("limit", k + 1);
+        Document filter = workerFilter(embeddingModel, null, null, null, null);
+        if (filter != null) {
+            vectorSearch.append("filter", filter);
+        }
+        Document vectorSearchStage = new Document("$vectorSearch", vectorSearch);
         operations.add(context -> vectorSearchStage);
+        operations.add(Aggregation.match(Criteria.where("_id").nin(WorkerProfileStages.objectIds(List.of(excludeServiceId)))));
+        operations.add(Aggregation.limit(k));
+        operations.add(context -> new Document("$project", new Document("_id", 0)
+                .append("serviceId", new Document("$toString", "$_id"))
+                .append("userId", 1)
+                .append("score", new Document("$meta", "vectorSearchScore"))));
 
-        // 2. Exclude the service we're already looking at
-        operations.add(Aggregation.match(
-            Criteria.where("_id").ne(excludeServiceId)
-        ));
-
-        Aggregation aggregation = Aggregation.newAggregation(operations);
-        
-        // Return the raw GigService objects
-        return mongoTemplate.aggregate(aggregation, "services", GigService.class).getMappedResults();
+        return mongoTemplate.aggregate(Aggregation.newAggregation(operations), "services", SimilarServices.Neighbor.class)
+                .getMappedResults();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,115 @@
+package com.example.gigconnect.repository;
+
+import com.example.gigconnect.model.GigService;
+import com.example.gigconnect.search.TextIndex;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * In-memory token/trigram index over the title, category and description of
+ * every service, replacing unanchored regex scans of the services collection.
+ * It is filled once the application is ready and then follows service saves and
+ * deletes through the Mongo mapping events. Until the first load finishes,
+ * callers should fall back to querying Mongo.
+ */
+@Component
+@ConditionalOnProperty(name = "search.text-index.enabled", havingValue = "true", matchIfMissing = true)
+public class GigServiceTextIndex extends AbstractMongoEventListener<GigService> {
+
+    private static final Logger logger = LoggerFactory.getLogger(GigServiceTextIndex.class);
+
+    static final int TITLE = 0;
+    static final int CATEGORY = 1;
+    static final int DESCRIPTION = 2;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    private final TextIndex index = new TextIndex(3);
+    private final Set<String> removedWhileLoading = ConcurrentHashMap.newKeySet();
+    private volatile boolean loading;
+    private volatile boolean ready;
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        logger.info("Loading services into the text index...");
+        long start = System.currentTimeMillis();
+        loading = true;
+        Query query = new Query();
+        query.fields().include("title").include("category").include("description");
+        try (Stream<GigService> services = mongoTemplate.stream(query, GigService.class)) {
+            services.forEach(service -> {
+                // Live writes that happened during the load are newer than what the cursor returns
+                if (!removedWhileLoading.contains(service.getId()) && !index.contains(service.getId())) {
+                    put(service);
+                }
+            });
+            ready = true;
+            logger.info("Text index loaded {} services in {} ms", index.size(), System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            logger.error("Failed to load services into the text index: {}", e.getMessage());
+        } finally {
+            loading = false;
+            removedWhileLoading.clear();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Ids of services whose title or category contains the keyword, ignoring case.
+     */
+    public Set<String> findIdsByTitleOrCategory(String keyword) {
+        return index.search(keyword, TITLE, CATEGORY);
+    }
+
+    /**
+     * Ids of services whose title, category or description contains the keyword.
+     */
+    public Set<String> findIdsByText(String keyword) {
+        return index.search(keyword, TITLE, CATEGORY, DESCRIPTION);
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    @Override
+    public void onAfterSave(AfterSaveEvent<GigService> event) {
+        put(event.getSource());
+    }
+
+    @Override
+    public void onAfterDelete(AfterDeleteEvent<GigService> event) {
+        Object id = event.getSource().get("_id");
+        if (id != null && !(id instanceof Document)) {
+            if (loading) {
+                removedWhileLoading.add(id.toString());
+            }
+            index.remove(id.toString());
+        }
+    }
+
+    private void put(GigService service) {
+        index.put(service.getId(), service.getTitle(), service.getCategory(), service.getDescription());
+    }
+}
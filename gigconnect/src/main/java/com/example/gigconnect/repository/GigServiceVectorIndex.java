@@ -0,0 +1,391 @@
+package com.example.gigconnect.repository;
+
+import com.example.gigconnect.dto.VectorRecallReportDTO;
+import com.example.gigconnect.model.GigService;
+import com.example.gigconnect.model.User;
+import com.example.gigconnect.search.HnswIndex;
+import com.example.gigconnect.search.SearchFilters;
+import com.example.gigconnect.search.SimilarityKernel;
+import com.example.gigconnect.search.SimilarityKernels;
+import com.example.gigconnect.search.VectorMath;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * In-memory HNSW graphs over every service's serviceVector and, separately, its
+ * fallbackVector, searched while the primary embedder is down. They are filled once the
+ * application is ready and then follow service saves and deletes through the
+ * Mongo mapping events, so they never need a full reload.
+ *
+ * <p>To fit the memory budget the graph can hold int8-quantized vectors. Searches
+ * then take {@code rerank-factor} times more candidates from the graph and re-rank
+ * them with the exact float vectors, read from the services collection.
+ */
+@Component
+@ConditionalOnProperty(name = "vector.backend", havingValue = "hnsw")
+public class GigServiceVectorIndex extends AbstractMongoEventListener<GigService> {
+
+    private static final Logger logger = LoggerFactory.getLogger(GigServiceVectorIndex.class);
+
+    // Vectors scored together by the brute-force pass of the recall report
+    private static final int RECALL_BLOCK_ROWS = 1024;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    // Vectors saved before models were recorded came from the vectorizer
+    @Value("${vectorizer.model:vectorizer}")
+    private String legacyModel;
+
+    // Worker fields used as search pre-filters, normalized like the copies on the services
+    private record WorkerFields(String city, String state, Set<String> skills, boolean openToWork) {
+    }
+
+    private final HnswIndex index;
+    private final HnswIndex fallbackIndex;
+    private final String quantization;
+    private final long memoryBudgetBytes;
+    private final int rerankFactor;
+    private final Map<String, String> ownerByServiceId = new ConcurrentHashMap<>();
+    private final Map<String, String> modelByServiceId = new ConcurrentHashMap<>();
+    private final Map<String, WorkerFields> workerByOwner = new ConcurrentHashMap<>();
+    private final Set<String> removedWhileLoading = ConcurrentHashMap.newKeySet();
+    private volatile boolean loading;
+
+    public GigServiceVectorIndex(@Value("${vector.hnsw.m:16}") int m,
+                                 @Value("${vector.hnsw.ef-construction:200}") int efConstruction,
+                                 @Value("${vector.hnsw.quantization:auto}") String quantization,
+                                 @Value("${vector.hnsw.memory-budget-mb:256}") long memoryBudgetMb,
+                                 @Value("${vector.hnsw.rerank-factor:4}") int rerankFactor,
+                                 MeterRegistry meterRegistry) {
+        this.index = new HnswIndex(m, efConstruction);
+        this.fallbackIndex = new HnswIndex(m, efConstruction);
+        this.quantization = quantization;
+        this.memoryBudgetBytes = memoryBudgetMb * 1024 * 1024;
+        this.rerankFactor = Math.max(1, rerankFactor);
+        if ("int8".equals(quantization)) {
+            index.quantize();
+            fallbackIndex.quantize();
+        }
+        Gauge.builder("vector.index.memory.bytes", this, GigServiceVectorIndex::memoryBytes)
+                .description("Estimated heap used by the in-memory vector index")
+                .register(meterRegistry);
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        logger.info("Loading service vectors into the HNSW index ({} similarity kernel)...", SimilarityKernels.get().name());
+        long start = System.currentTimeMillis();
+        loading = true;
+        Query query = new Query(new Criteria().orOperator(Criteria.where("serviceVector").ne(null),
+                Criteria.where("fallbackVector").ne(null)));
+        query.fields().include("userId").include("serviceVector").include("embeddingModel").include("fallbackVector")
+                .include("workerCity").include("workerState").include("workerSkills").include("workerOpenToWork");
+        try (Stream<GigService> services = mongoTemplate.stream(query, GigService.class)) {
+            services.forEach(service -> {
+                // Live writes that happened during the load are newer than what the cursor returns
+                if (!removedWhileLoading.contains(service.getId()) && !ownerByServiceId.containsKey(service.getId())) {
+                    put(service);
+                }
+            });
+            logger.info("HNSW index loaded {} service vectors and {} fallback vectors in {} ms", index.size(),
+                    fallbackIndex.size(), System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            logger.error("Failed to load service vectors into the HNSW index: {}", e.getMessage());
+        } finally {
+            loading = false;
+            removedWhileLoading.clear();
+        }
+    }
+
+    public List<HnswIndex.Hit> search(float[] query, int k, int ef, Predicate<String> filter) {
+        return search(index, "serviceVector", GigService::getServiceVector, query, k, ef, filter);
+    }
+
+    /**
+     * Like {@link #search}, over the fallback vectors; for queries embedded by the fallback embedder.
+     */
+    public List<HnswIndex.Hit> searchFallback(float[] query, int k, int ef, Predicate<String> filter) {
+        return search(fallbackIndex, "fallbackVector", GigService::getFallbackVector, query, k, ef, filter);
+    }
+
+    private List<HnswIndex.Hit> search(HnswIndex graph, String field, Function<GigService, float[]> vectorOf,
+                                       float[] query, int k, int ef, Predicate<String> filter) {
+        if (!graph.isQuantized()) {
+            return graph.search(query, k, ef, filter);
+        }
+        List<HnswIndex.Hit> candidates = graph.search(query, k * rerankFactor, Math.max(ef, k * rerankFactor), filter);
+        return rerank(query, candidates, k, field, vectorOf);
+    }
+
+    /**
+     * Measures what quantization costs in accuracy: for {@code sampleSize} stored
+     * vectors used as queries, the share of the exact top {@code k} (by brute force
+     * over every stored vector) that the graph returns before and after re-ranking.
+     */
+    public VectorRecallReportDTO recallReport(int sampleSize, int k) {
+        Query all = new Query(Criteria.where("serviceVector").ne(null));
+        all.fields().include("serviceVector");
+        List<GigService> sample = mongoTemplate.aggregate(Aggregation.newAggregation(
+                        Aggregation.match(Criteria.where("serviceVector").ne(null)),
+                        Aggregation.sample(sampleSize),
+                        Aggregation.project("serviceVector")),
+                "services", GigService.class).getMappedResults();
+        List<float[]> queries = sample.stream().map(service -> VectorMath.normalize(service.getServiceVector())).toList();
+
+        // Exact top k of every query in one pass over the collection, scored a block of vectors at a time
+        List<PriorityQueue<HnswIndex.Hit>> exact = new ArrayList<>();
+        queries.forEach(q -> exact.add(new PriorityQueue<>(Comparator.comparingDouble(HnswIndex.Hit::score))));
+        int dims = Math.max(0, index.dimension());
+        List<String> blockIds = new ArrayList<>(RECALL_BLOCK_ROWS);
+        float[] block = new float[RECALL_BLOCK_ROWS * dims];
+        try (Stream<GigService> services = mongoTemplate.stream(all, GigService.class)) {
+            services.forEach(service -> {
+                if (service.getServiceVector().length != dims) {
+                    return;
+                }
+                System.arraycopy(VectorMath.normalize(service.getServiceVector()), 0, block, blockIds.size() * dims, dims);
+                blockIds.add(service.getId());
+                if (blockIds.size() == RECALL_BLOCK_ROWS) {
+                    scoreBlock(queries, block, blockIds, k, exact);
+                    blockIds.clear();
+                }
+            });
+        }
+        scoreBlock(queries, block, blockIds, k, exact);
+
+        int ef = Math.max(k * rerankFactor, 100);
+        long approximateFound = 0;
+        long rerankedFound = 0;
+        long expected = 0;
+        for (int i = 0; i < queries.size(); i++) {
+            Set<String> truth = new HashSet<>();
+            exact.get(i).forEach(hit -> truth.add(hit.key()));
+            expected += truth.size();
+            approximateFound += index.search(queries.get(i), k, ef).stream().filter(hit -> truth.contains(hit.key())).count();
+            rerankedFound += search(queries.get(i), k, ef, id -> true).stream().filter(hit -> truth.contains(hit.key())).count();
+        }
+
+        VectorRecallReportDTO report = new VectorRecallReportDTO();
+        report.setQuantized(index.isQuantized());
+        report.setVectors(index.size());
+        report.setDimensions(Math.max(0, index.dimension()));
+        report.setIndexBytes(index.memoryBytes());
+        report.setFloatVectorBytes((long) index.size() * report.getDimensions() * 4);
+        report.setInt8VectorBytes((long) index.size() * (report.getDimensions() + 4));
+        report.setMemoryBudgetBytes(memoryBudgetBytes);
+        report.setSampleSize(queries.size());
+        report.setK(k);
+        report.setRerankFactor(rerankFactor);
+        report.setRecallApproximate(expected == 0 ? 0 : (double) approximateFound / expected);
+        report.setRecallReranked(expected == 0 ? 0 : (double) rerankedFound / expected);
+        return report;
+    }
+
+    /**
+     * Matches service ids whose worker passes the filters (exact, case-insensitive);
+     * null or empty filters are ignored.
+     */
+    public Predicate<String> workerFilter(String city, String state, List<String> skills, Boolean openToWork) {
+        String wantedCity = SearchFilters.normalize(city);
+        String wantedState = SearchFilters.normalize(state);
+        List<String> wantedSkills = SearchFilters.normalize(skills);
+        if (wantedCity == null && wantedState == null && wantedSkills.isEmpty() && openToWork == null) {
+            return id -> true;
+        }
+        return id -> {
+            String owner = ownerByServiceId.get(id);
+            WorkerFields worker = owner == null ? null : workerByOwner.get(owner);
+            return worker != null
+                    && (wantedCity == null || wantedCity.equals(worker.city()))
+                    && (wantedState == null || wantedState.equals(worker.state()))
+                    && (wantedSkills.isEmpty() || wantedSkills.stream().anyMatch(worker.skills()::contains))
+                    && (openToWork == null || openToWork == worker.openToWork());
+        };
+    }
+
+    /**
+     * Matches service ids whose vector came from the model; everything if null.
+     */
+    public Predicate<String> modelFilter(String embeddingModel) {
+        if (embeddingModel == null) {
+            return id -> true;
+        }
+        return id -> embeddingModel.equals(modelByServiceId.get(id));
+    }
+
+    // Profile edits are copied onto the services with a bulk update, so follow the user saves too
+    @EventListener
+    public void onUserSaved(AfterSaveEvent<?> event) {
+        if (event.getSource() instanceof User user && workerByOwner.containsKey(user.getId())) {
+            workerByOwner.put(user.getId(), new WorkerFields(
+                    SearchFilters.normalize(user.getCity()),
+                    SearchFilters.normalize(user.getState()),
+                    new HashSet<>(SearchFilters.normalize(user.getSkills() == null ? null : Arrays.asList(user.getSkills()))),
+                    user.isOpenToWork()));
+        }
+    }
+
+    public String ownerOf(String serviceId) {
+        return ownerByServiceId.get(serviceId);
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    @Override
+    public void onAfterSave(AfterSaveEvent<GigService> event) {
+        put(event.getSource());
+    }
+
+    @Override
+    public void onAfterDelete(AfterDeleteEvent<GigService> event) {
+        Object id = event.getSource().get("_id");
+        if (id != null && !(id instanceof Document)) {
+            remove(id.toString());
+        }
+    }
+
+    // Exact cosine re-ranking of approximate candidates; falls back to their order if Mongo is unavailable
+    private List<HnswIndex.Hit> rerank(float[] query, List<HnswIndex.Hit> candidates, int k, String field,
+                                       Function<GigService, float[]> vectorOf) {
+        if (candidates.isEmpty()) {
+            return candidates;
+        }
+        Map<String, float[]> exactVectors = new HashMap<>();
+        try {
+            Query byId = new Query(Criteria.where("_id").in(candidates.stream().map(HnswIndex.Hit::key).toList()));
+            byId.fields().include(field);
+            for (GigService service : mongoTemplate.find(byId, GigService.class)) {
+                if (vectorOf.apply(service) != null) {
+                    exactVectors.put(service.getId(), vectorOf.apply(service));
+                }
+            }
+        } catch (Exception e) {
+            logger.warn("Could not load vectors for re-ranking, using approximate scores: {}", e.getMessage());
+            return candidates.subList(0, Math.min(k, candidates.size()));
+        }
+        // Pack the exact vectors into one block so the kernel scores them in a single pass
+        float[] unitQuery = VectorMath.normalize(query);
+        List<String> ids = new ArrayList<>(candidates.size());
+        float[] block = new float[candidates.size() * unitQuery.length];
+        for (HnswIndex.Hit candidate : candidates) {
+            float[] vector = exactVectors.get(candidate.key());
+            if (vector != null && vector.length == unitQuery.length) {
+                System.arraycopy(VectorMath.normalize(vector), 0, block, ids.size() * unitQuery.length, unitQuery.length);
+                ids.add(candidate.key());
+            }
+        }
+        return SimilarityKernels.get().topK(unitQuery, block, ids.size(), k).stream()
+                .map(match -> new HnswIndex.Hit(ids.get(match.index()), match.score()))
+                .toList();
+    }
+
+    private static void scoreBlock(List<float[]> queries, float[] block, List<String> ids, int k,
+                                   List<PriorityQueue<HnswIndex.Hit>> exact) {
+        for (int i = 0; i < queries.size(); i++) {
+            if (queries.get(i).length * RECALL_BLOCK_ROWS != block.length) {
+                continue;
+            }
+            PriorityQueue<HnswIndex.Hit> top = exact.get(i);
+            for (SimilarityKernel.Match match : SimilarityKernels.get().topK(queries.get(i), block, ids.size(), k)) {
+                top.add(new HnswIndex.Hit(ids.get(match.index()), match.score()));
+                if (top.size() > k) {
+                    top.poll();
+                }
+            }
+        }
+    }
+
+    // Adds the service to the graph of each vector it has; a service with neither is removed
+    private void put(GigService service) {
+        boolean added = add(index, service.getId(), service.getServiceVector());
+        added |= add(fallbackIndex, service.getId(), service.getFallbackVector());
+        if (!added) {
+            remove(service.getId());
+            return;
+        }
+        // Switch to int8 once float vectors would no longer fit the budget
+        if ("auto".equals(quantization) && !index.isQuantized() && floatVectorBytes() > memoryBudgetBytes) {
+            logger.info("Float vectors exceed the {} MB budget at {} services, quantizing the index to int8",
+                    memoryBudgetBytes / (1024 * 1024), index.size());
+            index.quantize();
+            fallbackIndex.quantize();
+        }
+        ownerByServiceId.put(service.getId(), service.getUserId());
+        modelByServiceId.put(service.getId(),
+                service.getEmbeddingModel() == null ? legacyModel : service.getEmbeddingModel());
+        if (service.getUserId() != null) {
+            workerByOwner.put(service.getUserId(), new WorkerFields(service.getWorkerCity(), service.getWorkerState(),
+                    service.getWorkerSkills() == null ? Set.of() : new HashSet<>(Arrays.asList(service.getWorkerSkills())),
+                    service.isWorkerOpenToWork()));
+        }
+    }
+
+    // Whether the graph holds the service afterwards; a missing vector drops a stale one
+    private boolean add(HnswIndex graph, String serviceId, float[] vector) {
+        if (vector == null || vector.length == 0) {
+            graph.remove(serviceId);
+            return false;
+        }
+        try {
+            graph.add(serviceId, vector);
+            return true;
+        } catch (IllegalArgumentException e) {
+            logger.warn("Skipping vector for service {}: {}", serviceId, e.getMessage());
+            return graph.contains(serviceId);
+        }
+    }
+
+    private long floatVectorBytes() {
+        return ((long) index.size() * Math.max(0, index.dimension())
+                + (long) fallbackIndex.size() * Math.max(0, fallbackIndex.dimension())) * 4;
+    }
+
+    private long memoryBytes() {
+        return index.memoryBytes() + fallbackIndex.memoryBytes();
+    }
+
+    private void remove(String serviceId) {
+        if (loading) {
+            removedWhileLoading.add(serviceId);
+        }
+        index.remove(serviceId);
+        fallbackIndex.remove(serviceId);
+        ownerByServiceId.remove(serviceId);
+        modelByServiceId.remove(serviceId);
+    }
+}
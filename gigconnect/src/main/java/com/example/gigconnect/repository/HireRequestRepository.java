@@ -9,6 +9,10 @@ import java.util.Optional;
 public interface HireRequestRepository extends MongoRepository<HireRequest, String> {
     List<HireRequest> findByGigWorkerId(String gigWorkerId);
     List<HireRequest> findByClientId(String clientId);
+    // Review eligibility; answered from the client_worker_service index
+    boolean existsByClientIdAndGigWorkerIdAndServiceIdAndStatusAndWorkStatus(String clientId, String gigWorkerId,
+                                                                             String serviceId, String status,
+                                                                             String workStatus);
     List<HireRequest> findByGigWorkerIdAndStatus(String gigWorkerId, String status);
     List<HireRequest> findByServiceId(String serviceId); // Add this method 
     Optional<HireRequest> findByRazorpayOrderId(String razorpayOrderId);
@@ -0,0 +1,103 @@
+package com.example.gigconnect.repository;
+
+import com.example.gigconnect.dto.PublicUserProfileDTO;
+import com.example.gigconnect.model.SimilarServices;
+import com.example.gigconnect.search.HnswIndex;
+import com.example.gigconnect.search.SearchCursor;
+import com.example.gigconnect.search.VectorMath;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Answers the vector queries from {@link GigServiceVectorIndex} instead of Atlas
+ * $vectorSearch, so semantic search also works on a plain MongoDB deployment.
+ * Results mirror the Atlas pipeline: one profile per matching worker, best first,
+ * scored as (1 + cosine) / 2 like Atlas so both backends rank and page alike.
+ */
+@Component
+@ConditionalOnProperty(name = "vector.backend", havingValue = "hnsw")
+public class HnswGigServiceRepositoryVector implements GigServiceRepositoryVector {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private GigServiceVectorIndex vectorIndex;
+
+    @Value("${vector.hnsw.ef-search:150}")
+    private int efSearch;
+
+    @Value("${search.semantic.top-k:100}")
+    private int topK;
+
+    @Override
+    public List<PublicUserProfileDTO> searchGigWorkersByVector(float[] queryVector, String embeddingModel,
+                                                               boolean fallbackVector, String city, String state,
+                                                               List<String> skills, Boolean openToWork,
+                                                               SearchCursor after, int limit) {
+        // Filtered graph search: non-matching services are skipped while walking the graph
+        Predicate<String> workers = vectorIndex.workerFilter(city, state, skills, openToWork);
+        List<HnswIndex.Hit> hits = fallbackVector
+                ? vectorIndex.searchFallback(queryVector, topK, Math.max(efSearch, topK), workers)
+                : vectorIndex.search(queryVector, topK, Math.max(efSearch, topK),
+                vectorIndex.modelFilter(embeddingModel).and(workers));
+        if (hits.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        // Best score per worker on the Atlas scale, so cursors and re-ranking see the same scores; hits arrive best first
+        Map<String, Double> scoreByOwner = new LinkedHashMap<>();
+        for (HnswIndex.Hit hit : hits) {
+            String ownerId = vectorIndex.ownerOf(hit.key());
+            if (ownerId != null) {
+                scoreByOwner.putIfAbsent(ownerId, VectorMath.unitScore(hit.score()));
+            }
+        }
+        Comparator<String> byScoreThenId = Comparator.<String>comparingDouble(scoreByOwner::get).reversed()
+                .thenComparing(Comparator.naturalOrder());
+        List<String> ownerIds = scoreByOwner.keySet().stream()
+                .filter(id -> after == null || after.score() == null || isAfter(scoreByOwner.get(id), id, after))
+                .sorted(byScoreThenId)
+                .collect(Collectors.toList());
+        if (ownerIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        // Build the page in one aggregation over users, keeping the ranking from the index
+        List<PublicUserProfileDTO> results = WorkerProfileStages.profilesInOrder(mongoTemplate, ownerIds,
+                WorkerProfileStages.workerCriteria("", null, null, null, null), limit);
+        results.forEach(profile -> profile.setScore(scoreByOwner.get(profile.getId())));
+        return results;
+    }
+
+    private static boolean isAfter(double score, String id, SearchCursor after) {
+        return score < after.score() || (score == after.score() && id.compareTo(after.id()) > 0);
+    }
+
+    @Override
+    public List<SimilarServices.Neighbor> findNearestServices(float[] queryVector, String embeddingModel,
+                                                              String excludeServiceId, int k) {
+        // Owners come from the index too, so this never touches the database
+        List<SimilarServices.Neighbor> neighbors = new ArrayList<>();
+        Predicate<String> filter = vectorIndex.modelFilter(embeddingModel).and(id -> !id.equals(excludeServiceId));
+        for (HnswIndex.Hit hit : vectorIndex.search(queryVector, k, Math.max(efSearch, k), filter)) {
+            SimilarServices.Neighbor neighbor = new SimilarServices.Neighbor();
+            neighbor.setServiceId(hit.key());
+            neighbor.setUserId(vectorIndex.ownerOf(hit.key()));
+            neighbor.setScore(VectorMath.unitScore(hit.score()));
+            neighbors.add(neighbor);
+        }
+        return neighbors;
+    }
+}
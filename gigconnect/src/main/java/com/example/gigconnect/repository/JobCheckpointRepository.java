@@ -0,0 +1,7 @@
+package com.example.gigconnect.repository;
+
+import com.example.gigconnect.model.JobCheckpoint;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+public interface JobCheckpointRepository extends MongoRepository<JobCheckpoint, String> {
+}
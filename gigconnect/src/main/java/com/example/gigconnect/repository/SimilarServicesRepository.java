@@ -0,0 +1,7 @@
+package com.example.gigconnect.repository;
+
+import com.example.gigconnect.model.SimilarServices;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+public interface SimilarServicesRepository extends MongoRepository<SimilarServices, String>, SimilarServicesRepositoryCustom {
+}
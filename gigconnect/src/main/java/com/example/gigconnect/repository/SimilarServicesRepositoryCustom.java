@@ -0,0 +1,15 @@
+package com.example.gigconnect.repository;
+
+import com.example.gigconnect.dto.PublicUserProfileDTO;
+
+import java.util.List;
+
+public interface SimilarServicesRepositoryCustom {
+
+    /**
+     * Profiles of the workers owning the materialized neighbours of the service,
+     * other than its own worker, most similar first. Empty if the list has not
+     * been computed.
+     */
+    List<PublicUserProfileDTO> findRecommendedWorkers(String serviceId);
+}
@@ -0,0 +1,36 @@
+package com.example.gigconnect.repository;
+
+import com.example.gigconnect.dto.PublicUserProfileDTO;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.query.Criteria;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class SimilarServicesRepositoryCustomImpl implements SimilarServicesRepositoryCustom {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Override
+    public List<PublicUserProfileDTO> findRecommendedWorkers(String serviceId) {
+        List<AggregationOperation> operations = new ArrayList<>();
+        // Raw aggregations do not convert ids, and the service id was stored as an ObjectId
+        operations.add(Aggregation.match(Criteria.where("_id").in(WorkerProfileStages.objectIds(List.of(serviceId)))));
+        operations.add(Aggregation.unwind("neighbors"));
+        operations.add(context -> new Document("$match", new Document("$expr",
+                new Document("$ne", List.of("$neighbors.userId", "$userId")))));
+        // One row per worker, then the same join and projection as search results
+        operations.add(context -> new Document("$group", new Document("_id", "$neighbors.userId")
+                .append("score", new Document("$max", "$neighbors.score"))));
+        operations.addAll(WorkerProfileStages.joinWorker(null, null, null, null));
+        operations.add(WorkerProfileStages.lookupServices("_id"));
+        operations.add(WorkerProfileStages.projectProfile("gigWorker."));
+        operations.add(context -> new Document("$sort", new Document("score", -1).append("_id", 1)));
+        return WorkerProfileStages.streamProfiles(mongoTemplate, operations, "similar_services");
+    }
+}
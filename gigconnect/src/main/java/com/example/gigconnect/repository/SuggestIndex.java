@@ -0,0 +1,189 @@
+package com.example.gigconnect.repository;
+
+import com.example.gigconnect.model.GigService;
+import com.example.gigconnect.model.User;
+import com.example.gigconnect.search.PrefixTrie;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Typeahead over service titles, categories and worker skills. A term's weight
+ * is the number of services (titles, categories) or workers (skills) using it,
+ * so common terms are suggested first. Suggestions never touch the database:
+ * the trie is filled once the application is ready and then follows service
+ * and user writes through the Mongo mapping events.
+ */
+@Component
+@ConditionalOnProperty(name = "search.suggest.enabled", havingValue = "true", matchIfMissing = true)
+public class SuggestIndex extends AbstractMongoEventListener<GigService> {
+
+    private static final Logger logger = LoggerFactory.getLogger(SuggestIndex.class);
+
+    private record ServiceTerms(String title, String category) {
+    }
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    private final PrefixTrie trie = new PrefixTrie();
+    // What each service and worker currently contributes, so a write only applies the difference
+    private final Map<String, ServiceTerms> termsByService = new HashMap<>();
+    private final Map<String, List<String>> skillsByWorker = new HashMap<>();
+    private final Set<String> changedWhileLoading = ConcurrentHashMap.newKeySet();
+    private final Timer latency;
+    private volatile boolean loading;
+    private volatile boolean ready;
+
+    public SuggestIndex(MeterRegistry meterRegistry) {
+        this.latency = Timer.builder("search.suggest.latency")
+                .description("Time to answer a typeahead lookup")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        logger.info("Loading typeahead terms...");
+        long start = System.currentTimeMillis();
+        loading = true;
+        Query services = new Query();
+        services.fields().include("title").include("category");
+        Query workers = new Query(Criteria.where("role").is("GIG_WORKER"));
+        workers.fields().include("role").include("skills");
+        try (Stream<GigService> allServices = mongoTemplate.stream(services, GigService.class);
+             Stream<User> allWorkers = mongoTemplate.stream(workers, User.class)) {
+            // Live writes that happened during the load are newer than what the cursors return
+            allServices.forEach(service -> {
+                if (!changedWhileLoading.contains(service.getId())) {
+                    putService(service);
+                }
+            });
+            allWorkers.forEach(worker -> {
+                if (!changedWhileLoading.contains(worker.getId())) {
+                    putWorker(worker);
+                }
+            });
+            ready = true;
+            logger.info("Typeahead loaded {} terms in {} ms", trie.size(), System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            logger.error("Failed to load typeahead terms: {}", e.getMessage());
+        } finally {
+            loading = false;
+            changedWhileLoading.clear();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public List<PrefixTrie.Suggestion> suggest(String prefix, int limit) {
+        return latency.record(() -> trie.suggest(prefix, limit));
+    }
+
+    @Override
+    public void onAfterSave(AfterSaveEvent<GigService> event) {
+        GigService service = event.getSource();
+        if (loading) {
+            changedWhileLoading.add(service.getId());
+        }
+        putService(service);
+    }
+
+    @Override
+    public void onAfterDelete(AfterDeleteEvent<GigService> event) {
+        Object id = event.getSource().get("_id");
+        if (id != null && !(id instanceof Document)) {
+            if (loading) {
+                changedWhileLoading.add(id.toString());
+            }
+            removeService(id.toString());
+        }
+    }
+
+    @EventListener
+    public void onUserSaved(AfterSaveEvent<?> event) {
+        if (event.getSource() instanceof User user) {
+            if (loading) {
+                changedWhileLoading.add(user.getId());
+            }
+            putWorker(user);
+        }
+    }
+
+    @EventListener
+    public void onUserDeleted(AfterDeleteEvent<?> event) {
+        Object id = event.getSource().get("_id");
+        if ("users".equals(event.getCollectionName()) && id != null && !(id instanceof Document)) {
+            if (loading) {
+                changedWhileLoading.add(id.toString());
+            }
+            replaceSkills(id.toString(), List.of());
+        }
+    }
+
+    private synchronized void putService(GigService service) {
+        // Field updates publish partially loaded services; keep the terms they do not carry
+        ServiceTerms old = termsByService.get(service.getId());
+        ServiceTerms terms = new ServiceTerms(
+                service.getTitle() != null || old == null ? service.getTitle() : old.title(),
+                service.getCategory() != null || old == null ? service.getCategory() : old.category());
+        termsByService.put(service.getId(), terms);
+        apply(old, -1);
+        apply(terms, 1);
+    }
+
+    private synchronized void removeService(String serviceId) {
+        apply(termsByService.remove(serviceId), -1);
+    }
+
+    private void putWorker(User user) {
+        List<String> skills = "GIG_WORKER".equals(user.getRole()) && user.getSkills() != null
+                ? Arrays.asList(user.getSkills()) : List.of();
+        replaceSkills(user.getId(), skills);
+    }
+
+    private synchronized void replaceSkills(String workerId, List<String> skills) {
+        List<String> old = skills.isEmpty() ? skillsByWorker.remove(workerId) : skillsByWorker.put(workerId, skills);
+        if (old != null) {
+            old.forEach(skill -> trie.add(skill, -1));
+        }
+        skills.forEach(skill -> trie.add(skill, 1));
+    }
+
+    private void apply(ServiceTerms terms, int delta) {
+        if (terms == null) {
+            return;
+        }
+        if (terms.title() != null) {
+            trie.add(terms.title(), delta);
+        }
+        if (terms.category() != null) {
+            trie.add(terms.category(), delta);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.gigconnect.repository;
+
+import com.example.gigconnect.dto.PublicUserProfileDTO;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface UserRepositoryCustom {
+
+    /**
+     * Gig workers whose location is within {@code radiusKm} of the point, nearest
+     * first, with distanceKm set. {@code workerIds} (null for all) restricts the
+     * candidates, e.g. to the workers matching a keyword.
+     */
+    List<PublicUserProfileDTO> findGigWorkersNear(double lng, double lat, double radiusKm, Collection<String> workerIds,
+                                                  List<String> skills, Boolean openToWork, int limit);
+
+    /**
+     * Profiles of the given workers in the given order, skipping those not passing the filters.
+     */
+    List<PublicUserProfileDTO> findGigWorkerProfiles(List<String> orderedIds, List<String> skills, Boolean openToWork, int limit);
+}
@@ -0,0 +1,55 @@
+package com.example.gigconnect.repository;
+
+import com.example.gigconnect.dto.PublicUserProfileDTO;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.geo.Metrics;
+import org.springframework.data.geo.Point;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.NearQuery;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+public class UserRepositoryCustomImpl implements UserRepositoryCustom {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Override
+    public List<PublicUserProfileDTO> findGigWorkersNear(double lng, double lat, double radiusKm, Collection<String> workerIds,
+                                                         List<String> skills, Boolean openToWork, int limit) {
+        Criteria filter = WorkerProfileStages.workerCriteria("", null, null, skills, openToWork);
+        if (workerIds != null) {
+            filter = new Criteria().andOperator(filter, Criteria.where("_id").in(WorkerProfileStages.objectIds(workerIds)));
+        }
+
+        // $geoNear must come first; it uses the 2dsphere index on location and sorts by distance
+        NearQuery near = NearQuery.near(new Point(lng, lat), Metrics.KILOMETERS)
+                .maxDistance(radiusKm)
+                .spherical(true)
+                .query(new Query(filter));
+        List<AggregationOperation> operations = new ArrayList<>();
+        operations.add(Aggregation.geoNear(near, "distanceKm"));
+        operations.add(Aggregation.limit(limit));
+        operations.add(context -> new Document("$addFields", new Document("userId", new Document("$toString", "$_id"))));
+        operations.add(WorkerProfileStages.lookupServices("userId"));
+        operations.add(WorkerProfileStages.projectProfile(""));
+        return WorkerProfileStages.streamProfiles(mongoTemplate, operations, "users");
+    }
+
+    @Override
+    public List<PublicUserProfileDTO> findGigWorkerProfiles(List<String> orderedIds, List<String> skills, Boolean openToWork,
+                                                            int limit) {
+        if (orderedIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return WorkerProfileStages.profilesInOrder(mongoTemplate, orderedIds,
+                WorkerProfileStages.workerCriteria("", null, null, skills, openToWork), limit);
+    }
+}
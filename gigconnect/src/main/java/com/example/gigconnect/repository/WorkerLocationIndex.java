@@ -0,0 +1,117 @@
+package com.example.gigconnect.repository;
+
+import com.example.gigconnect.model.User;
+import com.example.gigconnect.search.GeoGrid;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Geohash grid of the positions of open-to-work gig workers, so the common
+ * "who is available near me" query is answered without a $geoNear round trip.
+ * It is filled once the application is ready and then follows user saves and
+ * deletes through the Mongo mapping events.
+ */
+@Component
+@ConditionalOnProperty(name = "search.geo.grid.enabled", havingValue = "true", matchIfMissing = true)
+public class WorkerLocationIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(WorkerLocationIndex.class);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    private final GeoGrid grid;
+    private final Set<String> changedWhileLoading = ConcurrentHashMap.newKeySet();
+    private volatile boolean loading;
+    private volatile boolean ready;
+
+    public WorkerLocationIndex(@Value("${search.geo.grid.precision:5}") int precision) {
+        this.grid = new GeoGrid(precision);
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        logger.info("Loading worker locations into the geo grid...");
+        long start = System.currentTimeMillis();
+        loading = true;
+        Query query = new Query(Criteria.where("role").is("GIG_WORKER").and("openToWork").is(true).and("location").ne(null));
+        query.fields().include("role").include("openToWork").include("location");
+        try (Stream<User> workers = mongoTemplate.stream(query, User.class)) {
+            workers.forEach(worker -> {
+                // Live writes that happened during the load are newer than what the cursor returns
+                if (!changedWhileLoading.contains(worker.getId())) {
+                    update(worker);
+                }
+            });
+            ready = true;
+            logger.info("Geo grid loaded {} workers in {} ms", grid.size(), System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            logger.error("Failed to load worker locations into the geo grid: {}", e.getMessage());
+        } finally {
+            loading = false;
+            changedWhileLoading.clear();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Open-to-work gig workers within the radius, nearest first.
+     */
+    public List<GeoGrid.Hit> findOpenWorkersWithin(double lng, double lat, double radiusKm) {
+        return grid.within(lng, lat, radiusKm);
+    }
+
+    @EventListener
+    public void onSaved(AfterSaveEvent<?> event) {
+        if (event.getSource() instanceof User user) {
+            if (loading) {
+                changedWhileLoading.add(user.getId());
+            }
+            update(user);
+        }
+    }
+
+    @EventListener
+    public void onDeleted(AfterDeleteEvent<?> event) {
+        Object id = event.getSource().get("_id");
+        if ("users".equals(event.getCollectionName()) && id != null && !(id instanceof Document)) {
+            if (loading) {
+                changedWhileLoading.add(id.toString());
+            }
+            grid.remove(id.toString());
+        }
+    }
+
+    private void update(User user) {
+        double[] location = user.getLocation();
+        boolean valid = location != null && location.length == 2
+                && Math.abs(location[0]) <= 180 && Math.abs(location[1]) <= 90;
+        if ("GIG_WORKER".equals(user.getRole()) && user.isOpenToWork() && valid) {
+            grid.put(user.getId(), location[0], location[1]);
+        } else {
+            grid.remove(user.getId());
+        }
+    }
+}
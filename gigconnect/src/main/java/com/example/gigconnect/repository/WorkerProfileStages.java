@@ -0,0 +1,161 @@
+package com.example.gigconnect.repository;
+
+import com.example.gigconnect.dto.PublicUserProfileDTO;
+import com.example.gigconnect.search.SearchCursor;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.query.Criteria;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Aggregation stages that turn search hits into {@code PublicUserProfileDTO}
+ * documents on the server, so a search is answered in a single round trip
+ * instead of one profile lookup per worker.
+ */
+final class WorkerProfileStages {
+
+    private WorkerProfileStages() {
+    }
+
+    /**
+     * Keyset condition for results ordered by score descending, then _id ascending.
+     */
+    static Criteria afterScore(SearchCursor after) {
+        return new Criteria().orOperator(
+                Criteria.where("score").lt(after.score()),
+                Criteria.where("score").is(after.score()).and("_id").gt(after.id()));
+    }
+
+    /**
+     * Runs the pipeline through a cursor so the raw result documents are not
+     * buffered alongside the mapped ones.
+     */
+    static List<PublicUserProfileDTO> streamProfiles(MongoTemplate mongoTemplate, List<AggregationOperation> operations,
+                                                     String collection) {
+        try (Stream<PublicUserProfileDTO> profiles = mongoTemplate.aggregateStream(
+                Aggregation.newAggregation(operations), collection, PublicUserProfileDTO.class)) {
+            return profiles.toList();
+        }
+    }
+
+    /**
+     * Profiles of the given workers that pass the filter, in the order of the ids,
+     * built with one aggregation over users.
+     */
+    static List<PublicUserProfileDTO> profilesInOrder(MongoTemplate mongoTemplate, List<String> orderedIds,
+                                                      Criteria workerFilter, int limit) {
+        List<AggregationOperation> operations = new ArrayList<>();
+        operations.add(Aggregation.match(new Criteria().andOperator(
+                Criteria.where("_id").in(objectIds(orderedIds)), workerFilter)));
+        operations.add(context -> new Document("$addFields", new Document("userId", new Document("$toString", "$_id"))));
+        operations.add(context -> new Document("$addFields", new Document("rank",
+                new Document("$indexOfArray", List.of(orderedIds, "$userId")))));
+        operations.add(Aggregation.sort(Sort.Direction.ASC, "rank"));
+        operations.add(Aggregation.limit(limit));
+        operations.add(lookupServices("userId"));
+        operations.add(projectProfile(""));
+        return streamProfiles(mongoTemplate, operations, "users");
+    }
+
+    // Raw aggregations do not convert ids, so match the stored ObjectIds
+    static List<Object> objectIds(Collection<String> ids) {
+        return ids.stream()
+                .map(id -> ObjectId.isValid(id) ? (Object) new ObjectId(id) : id)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Joins the worker whose id (a string) is in {@code _id} as "gigWorker" and
+     * keeps only GIG_WORKERs matching the search filters.
+     */
+    static List<AggregationOperation> joinWorker(String city, String state, List<String> skills, Boolean openToWork) {
+        List<AggregationOperation> operations = new ArrayList<>();
+        // services.userId is a string while users._id is an ObjectId
+        operations.add(context -> new Document("$addFields", new Document("workerObjectId",
+                new Document("$convert", new Document("input", "$_id")
+                        .append("to", "objectId")
+                        .append("onError", null)
+                        .append("onNull", null)))));
+        operations.add(Aggregation.lookup("users", "workerObjectId", "_id", "gigWorker"));
+        operations.add(Aggregation.unwind("gigWorker"));
+        operations.add(Aggregation.match(workerCriteria("gigWorker.", city, state, skills, openToWork)));
+        return operations;
+    }
+
+    static Criteria workerCriteria(String prefix, String city, String state, List<String> skills, Boolean openToWork) {
+        List<Criteria> criteria = new ArrayList<>();
+        criteria.add(Criteria.where(prefix + "role").is("GIG_WORKER"));
+        if (city != null && !city.isEmpty()) {
+            criteria.add(Criteria.where(prefix + "city").regex(city, "i"));
+        }
+        if (state != null && !state.isEmpty()) {
+            criteria.add(Criteria.where(prefix + "state").regex(state, "i"));
+        }
+        if (skills != null && !skills.isEmpty()) {
+            criteria.add(Criteria.where(prefix + "skills").in(skills));
+        }
+        if (openToWork != null) {
+            criteria.add(Criteria.where(prefix + "openToWork").is(openToWork));
+        }
+        return new Criteria().andOperator(criteria.toArray(new Criteria[0]));
+    }
+
+    /**
+     * Adds the worker's services as "services", matching services.userId against
+     * the given field. Vectors, the content hash and the copied worker fields are
+     * internal and left out, as in UserService's profiles.
+     */
+    static AggregationOperation lookupServices(String userIdField) {
+        return context -> new Document("$lookup", new Document("from", "services")
+                .append("localField", userIdField)
+                .append("foreignField", "userId")
+                .append("pipeline", List.of(new Document("$project", new Document("serviceVector", 0)
+                        .append("fallbackVector", 0)
+                        .append("contentHash", 0)
+                        .append("embeddingModel", 0)
+                        .append("workerCity", 0)
+                        .append("workerState", 0)
+                        .append("workerSkills", 0)
+                        .append("workerOpenToWork", 0))))
+                .append("as", "services"));
+    }
+
+    /**
+     * ratingSum / reviewCount, maintained by ReviewService; workers whose
+     * aggregates are not backfilled yet fall back to averaging the reviews.
+     */
+    static Document averageRating(String worker) {
+        return new Document("$cond", List.of(
+                new Document("$gt", List.of("$" + worker + "reviewCount", 0)),
+                new Document("$divide", List.of("$" + worker + "ratingSum", "$" + worker + "reviewCount")),
+                new Document("$ifNull", List.of(new Document("$avg", "$" + worker + "reviews.rating"), 0.0))));
+    }
+
+    /**
+     * Shapes the document like PublicUserProfileDTO. {@code worker} is the path
+     * prefix of the user fields, e.g. "gigWorker." or "" when the user is the root.
+     */
+    static AggregationOperation projectProfile(String worker) {
+        return context -> new Document("$project", new Document("name", "$" + worker + "name")
+                .append("city", "$" + worker + "city")
+                .append("state", "$" + worker + "state")
+                .append("skills", "$" + worker + "skills")
+                .append("portfolio", "$" + worker + "portfolio")
+                .append("mediaUrls", "$" + worker + "mediaUrls")
+                .append("openToWork", "$" + worker + "openToWork")
+                .append("reviews", "$" + worker + "reviews")
+                .append("averageRating", averageRating(worker))
+                .append("services", 1)
+                .append("score", 1)
+                .append("distanceKm", 1));
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.gigconnect.search;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Per-facet value counts where every owner counts at most once per value, e.g.
+ * how many workers offer a service in each category. An owner's values are
+ * replaced as a whole, so an update only touches the counts that changed.
+ *
+ * <p>Thread-safe: lookups share a read lock, updates take the write lock.
+ */
+public final class FacetCounts {
+
+    public record Count(String value, int count) {
+    }
+
+    private final Map<String, Map<String, Set<String>>> valuesByOwner = new HashMap<>();
+    private final Map<String, Map<String, Integer>> counts = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Replaces the owner's values, keyed by facet name. Null values are ignored.
+     */
+    public void put(String owner, Map<String, ? extends Collection<String>> values) {
+        Map<String, Set<String>> copy = new HashMap<>();
+        values.forEach((facet, facetValues) -> {
+            Set<String> distinct = new LinkedHashSet<>();
+            for (String value : facetValues) {
+                if (value != null) {
+                    distinct.add(value);
+                }
+            }
+            if (!distinct.isEmpty()) {
+                copy.put(facet, distinct);
+            }
+        });
+        lock.writeLock().lock();
+        try {
+            Map<String, Set<String>> old = valuesByOwner.put(owner, copy);
+            if (old != null) {
+                apply(old, -1);
+            }
+            apply(copy, 1);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(String owner) {
+        lock.writeLock().lock();
+        try {
+            Map<String, Set<String>> old = valuesByOwner.remove(owner);
+            if (old != null) {
+                apply(old, -1);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int owners() {
+        lock.readLock().lock();
+        try {
+            return valuesByOwner.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * The facet's most frequent values, by count descending then value.
+     */
+    public List<Count> top(String facet, int limit) {
+        List<Count> result = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            counts.getOrDefault(facet, Map.of()).forEach((value, count) -> result.add(new Count(value, count)));
+        } finally {
+            lock.readLock().unlock();
+        }
+        result.sort((a, b) -> a.count() != b.count() ? Integer.compare(b.count(), a.count()) : a.value().compareTo(b.value()));
+        return result.size() > limit ? new ArrayList<>(result.subList(0, limit)) : result;
+    }
+
+    private void apply(Map<String, Set<String>> values, int delta) {
+        values.forEach((facet, facetValues) -> {
+            Map<String, Integer> facetCounts = counts.computeIfAbsent(facet, f -> new HashMap<>());
+            for (String value : facetValues) {
+                // Drop values nobody has any more so the maps do not grow forever
+                facetCounts.compute(value, (v, count) -> {
+                    int updated = (count == null ? 0 : count) + delta;
+                    return updated <= 0 ? null : updated;
+                });
+            }
+            if (facetCounts.isEmpty()) {
+                counts.remove(facet);
+            }
+        });
+    }
+}
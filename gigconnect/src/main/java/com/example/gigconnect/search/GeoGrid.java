@@ -0,0 +1,193 @@
+package com.example.gigconnect.search;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Points bucketed by geohash cell. A radius query only visits the cells that
+ * overlap the query's bounding box and then checks the exact great-circle
+ * distance, so it costs roughly the number of points near the centre rather
+ * than the number of points overall.
+ *
+ * <p>Thread-safe: lookups share a read lock, updates take the write lock.
+ */
+public final class GeoGrid {
+
+    public record Hit(String key, double distanceKm) {
+    }
+
+    private record Point(double lng, double lat, String cell) {
+    }
+
+    private static final double EARTH_RADIUS_KM = 6371.0088;
+    private static final char[] BASE32 = "0123456789bcdefghjkmnpqrstuvwxyz".toCharArray();
+    // Beyond this many cells a full scan is cheaper than walking the grid
+    private static final int MAX_CELLS_PER_QUERY = 4096;
+
+    private final int precision;
+    private final double cellWidth;
+    private final double cellHeight;
+    private final Map<String, Map<String, Point>> cells = new HashMap<>();
+    private final Map<String, Point> points = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * @param precision geohash length of a cell; 5 gives cells of about 4.9 x 4.9 km
+     */
+    public GeoGrid(int precision) {
+        if (precision < 1 || precision > 12) {
+            throw new IllegalArgumentException("Geohash precision must be between 1 and 12");
+        }
+        this.precision = precision;
+        int bits = precision * 5;
+        this.cellWidth = 360.0 / (1L << ((bits + 1) / 2));
+        this.cellHeight = 180.0 / (1L << (bits / 2));
+    }
+
+    public void put(String key, double lng, double lat) {
+        Point point = new Point(lng, lat, geohash(lat, lng, precision));
+        lock.writeLock().lock();
+        try {
+            removeLocked(key);
+            points.put(key, point);
+            cells.computeIfAbsent(point.cell(), c -> new HashMap<>()).put(key, point);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(String key) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(key);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return points.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Points within {@code radiusKm} of the centre, nearest first.
+     */
+    public List<Hit> within(double lng, double lat, double radiusKm) {
+        double dLat = Math.toDegrees(radiusKm / EARTH_RADIUS_KM);
+        double minLat = Math.max(-90, lat - dLat);
+        double maxLat = Math.min(90, lat + dLat);
+        double cosLat = Math.min(Math.cos(Math.toRadians(minLat)), Math.cos(Math.toRadians(maxLat)));
+        double dLng = cosLat <= 1e-9 ? 180 : Math.min(180, dLat / cosLat);
+
+        List<Hit> hits = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            long rows = (long) Math.ceil((maxLat - minLat) / cellHeight) + 1;
+            long cols = (long) Math.ceil(2 * dLng / cellWidth) + 1;
+            if (dLng >= 180 || rows * cols > MAX_CELLS_PER_QUERY) {
+                points.forEach((key, point) -> collect(hits, key, point, lng, lat, radiusKm));
+            } else {
+                for (String cell : coveringCells(minLat, maxLat, lng - dLng, lng + dLng)) {
+                    Map<String, Point> bucket = cells.get(cell);
+                    if (bucket != null) {
+                        bucket.forEach((key, point) -> collect(hits, key, point, lng, lat, radiusKm));
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        hits.sort(Comparator.comparingDouble(Hit::distanceKm));
+        return hits;
+    }
+
+    public static double distanceKm(double lng1, double lat1, double lng2, double lat2) {
+        double phi1 = Math.toRadians(lat1);
+        double phi2 = Math.toRadians(lat2);
+        double dPhi = phi2 - phi1;
+        double dLambda = Math.toRadians(lng2 - lng1);
+        double a = Math.sin(dPhi / 2) * Math.sin(dPhi / 2)
+                + Math.cos(phi1) * Math.cos(phi2) * Math.sin(dLambda / 2) * Math.sin(dLambda / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    static String geohash(double lat, double lng, int precision) {
+        double[] latRange = {-90, 90};
+        double[] lngRange = {-180, 180};
+        StringBuilder hash = new StringBuilder(precision);
+        boolean evenBit = true;
+        int bit = 0;
+        int ch = 0;
+        while (hash.length() < precision) {
+            double[] range = evenBit ? lngRange : latRange;
+            double value = evenBit ? lng : lat;
+            double mid = (range[0] + range[1]) / 2;
+            if (value >= mid) {
+                ch = (ch << 1) | 1;
+                range[0] = mid;
+            } else {
+                ch = ch << 1;
+                range[1] = mid;
+            }
+            evenBit = !evenBit;
+            if (++bit == 5) {
+                hash.append(BASE32[ch]);
+                bit = 0;
+                ch = 0;
+            }
+        }
+        return hash.toString();
+    }
+
+    // Samples the box at cell spacing (plus its far edges) so every overlapping cell is hit once
+    private Set<String> coveringCells(double minLat, double maxLat, double minLng, double maxLng) {
+        Set<String> covering = new LinkedHashSet<>();
+        for (double y = minLat; ; y = Math.min(maxLat, y + cellHeight)) {
+            for (double x = minLng; ; x = Math.min(maxLng, x + cellWidth)) {
+                covering.add(geohash(Math.min(y, 90 - 1e-9), wrapLng(x), precision));
+                if (x >= maxLng) {
+                    break;
+                }
+            }
+            if (y >= maxLat) {
+                break;
+            }
+        }
+        return covering;
+    }
+
+    private static double wrapLng(double lng) {
+        double wrapped = ((lng + 180) % 360 + 360) % 360 - 180;
+        return Math.min(wrapped, 180 - 1e-9);
+    }
+
+    private static void collect(List<Hit> hits, String key, Point point, double lng, double lat, double radiusKm) {
+        double distance = distanceKm(lng, lat, point.lng(), point.lat());
+        if (distance <= radiusKm) {
+            hits.add(new Hit(key, distance));
+        }
+    }
+
+    private void removeLocked(String key) {
+        Point old = points.remove(key);
+        if (old != null) {
+            Map<String, Point> bucket = cells.get(old.cell());
+            bucket.remove(key);
+            if (bucket.isEmpty()) {
+                cells.remove(old.cell());
+            }
+        }
+    }
+}
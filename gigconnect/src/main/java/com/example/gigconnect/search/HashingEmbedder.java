@@ -0,0 +1,64 @@
+package com.example.gigconnect.search;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Dependency-free text embedding by the hashing trick: word tokens and the
+ * character trigrams of each word are hashed to signed positions of a fixed-size
+ * vector, weighted by sublinear term frequency, and the result is L2-normalized.
+ * Texts that share words or word fragments get a positive cosine; it captures no
+ * synonyms, so it is a stand-in for a learned model, not a replacement.
+ */
+public final class HashingEmbedder {
+
+    private static final float TRIGRAM_WEIGHT = 0.5f;
+
+    private final int dimensions;
+
+    public HashingEmbedder(int dimensions) {
+        if (dimensions < 8) {
+            throw new IllegalArgumentException("At least 8 dimensions are needed, got " + dimensions);
+        }
+        this.dimensions = dimensions;
+    }
+
+    public int dimensions() {
+        return dimensions;
+    }
+
+    /**
+     * Unit-length embedding of the text, or null if it has no word characters.
+     */
+    public float[] embed(String text) {
+        Map<String, Integer> counts = new HashMap<>();
+        for (String token : TextIndex.tokensOf(text == null ? "" : text.toLowerCase(Locale.ROOT))) {
+            counts.merge("w:" + token, 1, Integer::sum);
+            String padded = " " + token + " ";
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                counts.merge("t:" + padded.substring(i, i + 3), 1, Integer::sum);
+            }
+        }
+        if (counts.isEmpty()) {
+            return null;
+        }
+        float[] vector = new float[dimensions];
+        counts.forEach((feature, count) -> {
+            int hash = mix(feature.hashCode());
+            float weight = (float) (1 + Math.log(count)) * (feature.charAt(0) == 'w' ? 1f : TRIGRAM_WEIGHT);
+            // One bit of the hash picks the sign so collisions cancel out on average
+            vector[Math.floorMod(hash, dimensions)] += (hash & 0x80000000) == 0 ? weight : -weight;
+        });
+        return VectorMath.normalize(vector);
+    }
+
+    // String.hashCode is stable across JVMs but poorly spread in the low bits
+    private static int mix(int hash) {
+        hash ^= hash >>> 16;
+        hash *= 0x85ebca6b;
+        hash ^= hash >>> 13;
+        hash *= 0xc2b2ae35;
+        return hash ^ (hash >>> 16);
+    }
+}
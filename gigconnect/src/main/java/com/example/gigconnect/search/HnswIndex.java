@@ -0,0 +1,423 @@
+package com.example.gigconnect.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.SplittableRandom;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
+
+/**
+ * Hierarchical Navigable Small World graph for approximate nearest neighbour search
+ * (Malkov &amp; Yashunin). Vectors are normalized on insert, so the similarity used
+ * everywhere is cosine. Searches run concurrently under a read lock; inserts and
+ * removals take the write lock. Removed nodes stay in the graph as tombstones so
+ * navigation keeps working, and the graph is rebuilt once they outnumber live nodes.
+ *
+ * <p>After {@link #quantize()} the vectors are kept as int8 codes with one float
+ * scale each, a quarter of the float size. Scores are then approximate, so callers
+ * should fetch more candidates than they need and re-rank them exactly.
+ */
+public class HnswIndex {
+
+    public record Hit(String key, float score) {
+    }
+
+    private record Scored(int node, float score) {
+    }
+
+    private static final Comparator<Scored> BEST_FIRST = (a, b) -> Float.compare(b.score, a.score);
+    private static final Comparator<Scored> WORST_FIRST = (a, b) -> Float.compare(a.score, b.score);
+
+    private final int m;
+    private final int maxM0;
+    private final int efConstruction;
+    private final double levelMultiplier;
+    private final SplittableRandom random = new SplittableRandom(42);
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private int dimension = -1;
+    private int nodeCount;
+    private String[] keys = new String[64];
+    private float[][] vectors = new float[64][]; // Unit vectors; null once quantized
+    private byte[][] codes; // int8 codes of the unit vectors once quantized
+    private float[] scales;
+    private boolean quantized;
+    private int[][][] links = new int[64][][];
+    private final Map<String, Integer> nodeByKey = new HashMap<>();
+    private final BitSet deleted = new BitSet();
+    private int entryPoint = -1;
+    private int maxLevel = -1;
+
+    public HnswIndex(int m, int efConstruction) {
+        this.m = m;
+        this.maxM0 = m * 2;
+        this.efConstruction = efConstruction;
+        this.levelMultiplier = 1.0 / Math.log(m);
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return nodeByKey.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int dimension() {
+        return dimension;
+    }
+
+    public boolean isQuantized() {
+        lock.readLock().lock();
+        try {
+            return quantized;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Approximate heap used by the vectors and links of all nodes, tombstones included.
+     */
+    public long memoryBytes() {
+        lock.readLock().lock();
+        try {
+            long bytes = 0;
+            for (int node = 0; node < nodeCount; node++) {
+                bytes += quantized ? codes[node].length + 4L + 16 : vectors[node].length * 4L + 16;
+                for (int[] level : links[node]) {
+                    bytes += level.length * 4L + 16;
+                }
+            }
+            return bytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Switches to int8 storage, converting the vectors already indexed. The graph
+     * itself is kept, so this is cheap compared to a rebuild. Cannot be undone.
+     */
+    public void quantize() {
+        lock.writeLock().lock();
+        try {
+            if (quantized) {
+                return;
+            }
+            codes = new byte[vectors.length][];
+            scales = new float[vectors.length];
+            for (int node = 0; node < nodeCount; node++) {
+                scales[node] = VectorMath.int8Scale(vectors[node]);
+                codes[node] = VectorMath.quantizeInt8(vectors[node], scales[node]);
+            }
+            vectors = null;
+            quantized = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean contains(String key) {
+        lock.readLock().lock();
+        try {
+            return nodeByKey.containsKey(key);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Inserts the vector under the given key, replacing any previous vector for it.
+     */
+    public void add(String key, float[] vector) {
+        lock.writeLock().lock();
+        try {
+            if (dimension < 0) {
+                dimension = vector.length;
+            } else if (vector.length != dimension) {
+                throw new IllegalArgumentException("Expected " + dimension + " dimensions but got " + vector.length);
+            }
+            Integer previous = nodeByKey.remove(key);
+            if (previous != null) {
+                deleted.set(previous);
+            }
+            insert(key, VectorMath.normalize(vector));
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean remove(String key) {
+        lock.writeLock().lock();
+        try {
+            Integer node = nodeByKey.remove(key);
+            if (node == null) {
+                return false;
+            }
+            deleted.set(node);
+            compactIfNeeded();
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<Hit> search(float[] query, int k, int ef) {
+        return search(query, k, ef, key -> true);
+    }
+
+    /**
+     * Returns up to {@code k} live keys most similar to the query that satisfy the filter,
+     * best first. {@code ef} is the size of the dynamic candidate list at the bottom layer.
+     */
+    public List<Hit> search(float[] query, int k, int ef, Predicate<String> filter) {
+        lock.readLock().lock();
+        try {
+            if (entryPoint < 0 || query.length != dimension) {
+                return List.of();
+            }
+            float[] q = VectorMath.normalize(query);
+            int current = greedyDescent(q, entryPoint, maxLevel, 0);
+            List<Scored> found = searchLayer(q, current, Math.max(ef, k), 0,
+                    node -> !deleted.get(node) && filter.test(keys[node]));
+            List<Hit> hits = new ArrayList<>(Math.min(k, found.size()));
+            for (int i = 0; i < found.size() && hits.size() < k; i++) {
+                Scored s = found.get(i);
+                hits.add(new Hit(keys[s.node], s.score));
+            }
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void insert(String key, float[] vector) {
+        int level = randomLevel();
+        int node = allocate(key, vector, level);
+        if (entryPoint < 0) {
+            entryPoint = node;
+            maxLevel = level;
+            return;
+        }
+        int current = greedyDescent(vector, entryPoint, maxLevel, level + 1);
+        for (int l = Math.min(level, maxLevel); l >= 0; l--) {
+            List<Scored> candidates = searchLayer(vector, current, efConstruction, l, n -> true);
+            int[] selected = selectNeighbors(candidates, m);
+            links[node][l] = selected;
+            int maxConnections = l == 0 ? maxM0 : m;
+            for (int neighbour : selected) {
+                connect(neighbour, node, l, maxConnections);
+            }
+            current = candidates.get(0).node;
+        }
+        if (level > maxLevel) {
+            maxLevel = level;
+            entryPoint = node;
+        }
+    }
+
+    // Walks down from the top layer to stopLevel, always moving to the closest neighbour
+    private int greedyDescent(float[] query, int start, int fromLevel, int stopLevel) {
+        int current = start;
+        float currentScore = similarity(query, current);
+        for (int l = fromLevel; l >= stopLevel; l--) {
+            boolean changed = true;
+            while (changed) {
+                changed = false;
+                for (int neighbour : links[current][l]) {
+                    float score = similarity(query, neighbour);
+                    if (score > currentScore) {
+                        currentScore = score;
+                        current = neighbour;
+                        changed = true;
+                    }
+                }
+            }
+        }
+        return current;
+    }
+
+    // Best-first beam search within one layer; only accepted nodes enter the result set,
+    // but every node is used for navigation.
+    private List<Scored> searchLayer(float[] query, int start, int ef, int level,
+                                     IntPredicate accept) {
+        BitSet visited = new BitSet(nodeCount);
+        PriorityQueue<Scored> candidates = new PriorityQueue<>(BEST_FIRST);
+        PriorityQueue<Scored> results = new PriorityQueue<>(WORST_FIRST);
+
+        Scored first = new Scored(start, similarity(query, start));
+        visited.set(start);
+        candidates.add(first);
+        if (accept.test(start)) {
+            results.add(first);
+        }
+
+        while (!candidates.isEmpty()) {
+            Scored candidate = candidates.poll();
+            if (results.size() >= ef && candidate.score < results.peek().score) {
+                break;
+            }
+            int[] neighbours = links[candidate.node].length > level ? links[candidate.node][level] : null;
+            if (neighbours == null) {
+                continue;
+            }
+            for (int neighbour : neighbours) {
+                if (visited.get(neighbour)) {
+                    continue;
+                }
+                visited.set(neighbour);
+                float score = similarity(query, neighbour);
+                if (results.size() < ef || score > results.peek().score) {
+                    Scored scored = new Scored(neighbour, score);
+                    candidates.add(scored);
+                    if (accept.test(neighbour)) {
+                        results.add(scored);
+                        if (results.size() > ef) {
+                            results.poll();
+                        }
+                    }
+                }
+            }
+        }
+
+        List<Scored> sorted = new ArrayList<>(results);
+        sorted.sort(BEST_FIRST);
+        return sorted;
+    }
+
+    // Neighbour selection heuristic: prefer candidates that are closer to the new node
+    // than to any neighbour already chosen, which keeps the graph navigable across clusters.
+    private int[] selectNeighbors(List<Scored> candidatesBestFirst, int max) {
+        List<Scored> chosen = new ArrayList<>(max);
+        List<Scored> skipped = new ArrayList<>();
+        for (Scored candidate : candidatesBestFirst) {
+            if (chosen.size() >= max) {
+                break;
+            }
+            boolean diverse = true;
+            for (Scored c : chosen) {
+                if (similarity(candidate.node, c.node) > candidate.score) {
+                    diverse = false;
+                    break;
+                }
+            }
+            if (diverse) {
+                chosen.add(candidate);
+            } else {
+                skipped.add(candidate);
+            }
+        }
+        for (int i = 0; i < skipped.size() && chosen.size() < max; i++) {
+            chosen.add(skipped.get(i));
+        }
+        int[] out = new int[chosen.size()];
+        for (int i = 0; i < out.length; i++) {
+            out[i] = chosen.get(i).node;
+        }
+        return out;
+    }
+
+    private void connect(int from, int to, int level, int maxConnections) {
+        int[] existing = links[from][level];
+        int[] grown = Arrays.copyOf(existing, existing.length + 1);
+        grown[existing.length] = to;
+        if (grown.length <= maxConnections) {
+            links[from][level] = grown;
+            return;
+        }
+        List<Scored> candidates = new ArrayList<>(grown.length);
+        for (int neighbour : grown) {
+            candidates.add(new Scored(neighbour, similarity(from, neighbour)));
+        }
+        candidates.sort(BEST_FIRST);
+        links[from][level] = selectNeighbors(candidates, maxConnections);
+    }
+
+    private float similarity(float[] query, int node) {
+        return quantized ? VectorMath.dot(query, codes[node]) * scales[node] : VectorMath.dot(query, vectors[node]);
+    }
+
+    private float similarity(int a, int b) {
+        return quantized ? VectorMath.dot(codes[a], codes[b]) * scales[a] * scales[b] : VectorMath.dot(vectors[a], vectors[b]);
+    }
+
+    // The stored unit vector, reconstructed from its codes when quantized
+    private float[] vectorOf(int node) {
+        return quantized ? VectorMath.dequantizeInt8(codes[node], scales[node]) : vectors[node];
+    }
+
+    private int allocate(String key, float[] vector, int level) {
+        if (nodeCount == keys.length) {
+            int capacity = keys.length * 2;
+            keys = Arrays.copyOf(keys, capacity);
+            links = Arrays.copyOf(links, capacity);
+            if (quantized) {
+                codes = Arrays.copyOf(codes, capacity);
+                scales = Arrays.copyOf(scales, capacity);
+            } else {
+                vectors = Arrays.copyOf(vectors, capacity);
+            }
+        }
+        int node = nodeCount++;
+        keys[node] = key;
+        if (quantized) {
+            scales[node] = VectorMath.int8Scale(vector);
+            codes[node] = VectorMath.quantizeInt8(vector, scales[node]);
+        } else {
+            vectors[node] = vector;
+        }
+        links[node] = new int[level + 1][];
+        for (int l = 0; l <= level; l++) {
+            links[node][l] = new int[0];
+        }
+        nodeByKey.put(key, node);
+        return node;
+    }
+
+    private int randomLevel() {
+        return (int) (-Math.log(1.0 - random.nextDouble()) * levelMultiplier);
+    }
+
+    private void compactIfNeeded() {
+        int tombstones = nodeCount - nodeByKey.size();
+        if (tombstones < 64 || tombstones < nodeByKey.size()) {
+            return;
+        }
+        String[] liveKeys = new String[nodeByKey.size()];
+        float[][] liveVectors = new float[nodeByKey.size()][];
+        int i = 0;
+        for (int node = 0; node < nodeCount; node++) {
+            if (!deleted.get(node)) {
+                liveKeys[i] = keys[node];
+                liveVectors[i] = vectorOf(node);
+                i++;
+            }
+        }
+        keys = new String[Math.max(64, liveKeys.length * 2)];
+        links = new int[keys.length][][];
+        if (quantized) {
+            codes = new byte[keys.length][];
+            scales = new float[keys.length];
+        } else {
+            vectors = new float[keys.length][];
+        }
+        nodeByKey.clear();
+        deleted.clear();
+        nodeCount = 0;
+        entryPoint = -1;
+        maxLevel = -1;
+        for (int j = 0; j < liveKeys.length; j++) {
+            insert(liveKeys[j], liveVectors[j]);
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package com.example.gigconnect.search;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Weighted phrases for typeahead. A phrase can be completed from the start of
+ * any of its words ("des" finds "Logo design"), and the best completions are
+ * found best-first: every node knows the highest weight below it, so a lookup
+ * only expands the branches that can still make the top results instead of
+ * walking the whole subtree.
+ *
+ * <p>Weights are counts that callers adjust by deltas; a phrase disappears when
+ * its weight drops to zero. Thread-safe: lookups share a read lock, updates take
+ * the write lock.
+ */
+public final class PrefixTrie {
+
+    public record Suggestion(String text, long weight) {
+    }
+
+    private static final class Term {
+        final String text;
+        final List<String> keys;
+        long weight;
+
+        Term(String text, List<String> keys) {
+            this.text = text;
+            this.keys = keys;
+        }
+    }
+
+    private static final class Node {
+        final Map<Character, Node> children = new HashMap<>(4);
+        final List<Term> terms = new ArrayList<>(1);
+        long maxWeight; // Highest term weight in this subtree
+    }
+
+    private final Node root = new Node();
+    private final Map<String, Term> terms = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Adds {@code delta} to the phrase's weight. Phrases that differ only in case
+     * and spacing are the same phrase; the first spelling seen is the one suggested.
+     */
+    public void add(String phrase, long delta) {
+        String key = normalize(phrase);
+        if (key.isEmpty() || delta == 0) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            Term term = terms.get(key);
+            if (term == null) {
+                if (delta < 0) {
+                    return;
+                }
+                term = new Term(phrase.strip().replaceAll("\\s+", " "), wordSuffixes(key));
+                terms.put(key, term);
+                for (String suffix : term.keys) {
+                    nodeFor(suffix).terms.add(term);
+                }
+            }
+            term.weight += delta;
+            if (term.weight <= 0) {
+                terms.remove(key);
+                for (String suffix : term.keys) {
+                    detach(suffix, term);
+                }
+            } else {
+                for (String suffix : term.keys) {
+                    refreshPath(suffix);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return terms.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * The heaviest phrases with a word starting with the prefix, heaviest first.
+     */
+    public List<Suggestion> suggest(String prefix, int limit) {
+        String key = normalize(prefix);
+        List<Suggestion> result = new ArrayList<>();
+        if (key.isEmpty() || limit <= 0) {
+            return result;
+        }
+        lock.readLock().lock();
+        try {
+            Node node = root;
+            for (int i = 0; i < key.length() && node != null; i++) {
+                node = node.children.get(key.charAt(i));
+            }
+            if (node == null) {
+                return result;
+            }
+            // Queue of nodes (bounded by their subtree maximum) and terms (exact weight)
+            PriorityQueue<Object[]> queue = new PriorityQueue<>((a, b) -> Long.compare((long) b[1], (long) a[1]));
+            queue.add(new Object[]{node, node.maxWeight});
+            Set<Term> emitted = new HashSet<>();
+            while (!queue.isEmpty() && result.size() < limit) {
+                Object item = queue.poll()[0];
+                if (item instanceof Term term) {
+                    if (emitted.add(term)) {
+                        result.add(new Suggestion(term.text, term.weight));
+                    }
+                } else {
+                    Node next = (Node) item;
+                    for (Term term : next.terms) {
+                        queue.add(new Object[]{term, term.weight});
+                    }
+                    for (Node child : next.children.values()) {
+                        queue.add(new Object[]{child, child.maxWeight});
+                    }
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    static String normalize(String text) {
+        return text == null ? "" : text.strip().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    // The phrase from each word onwards, e.g. "logo design" -> "logo design", "design"
+    private static List<String> wordSuffixes(String key) {
+        Set<String> suffixes = new LinkedHashSet<>();
+        for (int i = 0; i < key.length(); i++) {
+            if (Character.isLetterOrDigit(key.charAt(i)) && (i == 0 || !Character.isLetterOrDigit(key.charAt(i - 1)))) {
+                suffixes.add(key.substring(i));
+            }
+        }
+        if (suffixes.isEmpty()) {
+            suffixes.add(key);
+        }
+        return new ArrayList<>(suffixes);
+    }
+
+    private Node nodeFor(String key) {
+        Node node = root;
+        for (int i = 0; i < key.length(); i++) {
+            node = node.children.computeIfAbsent(key.charAt(i), c -> new Node());
+        }
+        return node;
+    }
+
+    private void detach(String key, Term term) {
+        List<Node> path = path(key);
+        path.get(path.size() - 1).terms.remove(term);
+        // Prune nodes left without terms or children, then fix the maxima above them
+        for (int i = path.size() - 1; i > 0; i--) {
+            Node node = path.get(i);
+            if (node.terms.isEmpty() && node.children.isEmpty()) {
+                path.get(i - 1).children.remove(key.charAt(i - 1));
+            }
+        }
+        refresh(path);
+    }
+
+    private void refreshPath(String key) {
+        refresh(path(key));
+    }
+
+    private static void refresh(List<Node> path) {
+        for (int i = path.size() - 1; i >= 0; i--) {
+            Node node = path.get(i);
+            long max = 0;
+            for (Term term : node.terms) {
+                max = Math.max(max, term.weight);
+            }
+            for (Node child : node.children.values()) {
+                max = Math.max(max, child.maxWeight);
+            }
+            node.maxWeight = max;
+        }
+    }
+
+    // Root first; the key is known to be present
+    private List<Node> path(String key) {
+        List<Node> path = new ArrayList<>(key.length() + 1);
+        Node node = root;
+        path.add(node);
+        for (int i = 0; i < key.length(); i++) {
+            node = node.children.get(key.charAt(i));
+            path.add(node);
+        }
+        return path;
+    }
+}
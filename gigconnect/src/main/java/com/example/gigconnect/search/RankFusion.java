@@ -0,0 +1,50 @@
+package com.example.gigconnect.search;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Reciprocal rank fusion: each ranked list contributes 1 / (k + rank) to an
+ * item's score, so items ranked well by several retrievers rise to the top
+ * without having to compare their raw (incomparable) scores.
+ */
+public final class RankFusion {
+
+    public static final int DEFAULT_K = 60;
+
+    private RankFusion() {
+    }
+
+    /**
+     * Fuses ranked lists of keys, best first. Duplicates within a list only count
+     * at their best rank. Ties keep the order in which keys were first seen.
+     */
+    public static List<String> reciprocalRank(List<List<String>> rankings, int k) {
+        return new ArrayList<>(scores(rankings, k).keySet());
+    }
+
+    /**
+     * The fused score of every key, iterated best first like {@link #reciprocalRank}.
+     * A key ranked first by all {@code n} lists scores {@code n / (k + 1)}.
+     */
+    public static Map<String, Double> scores(List<List<String>> rankings, int k) {
+        Map<String, Double> scores = new LinkedHashMap<>();
+        for (List<String> ranking : rankings) {
+            Set<String> seen = new HashSet<>();
+            for (String key : ranking) {
+                if (seen.add(key)) {
+                    scores.merge(key, 1.0 / (k + seen.size()), Double::sum);
+                }
+            }
+        }
+        List<String> fused = new ArrayList<>(scores.keySet());
+        fused.sort((a, b) -> Double.compare(scores.get(b), scores.get(a)));
+        Map<String, Double> ordered = new LinkedHashMap<>();
+        fused.forEach(key -> ordered.put(key, scores.get(key)));
+        return ordered;
+    }
+}
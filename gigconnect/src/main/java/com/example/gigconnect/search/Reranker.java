@@ -0,0 +1,71 @@
+package com.example.gigconnect.search;
+
+/**
+ * Linear re-ranking of a bounded candidate list. Each signal is scaled to
+ * [0, 1] before its weight is applied: the vector score as given (callers pass
+ * scores already on [0, 1], such as (1 + cosine) / 2), the average
+ * rating out of 5, the review count on a log scale that saturates at
+ * {@code reviewSaturation}, openToWork as 0 or 1, and the distance as
+ * {@code scale / (scale + km)}. Missing signals (NaN) contribute nothing.
+ */
+public final class Reranker {
+
+    public static final String[] SIGNALS = {"vector", "rating", "reviews", "openToWork", "distance"};
+
+    public record Weights(double vector, double rating, double reviews, double openToWork, double distance,
+                          int reviewSaturation, double distanceScaleKm) {
+
+        public Weights {
+            if (reviewSaturation < 1 || !(distanceScaleKm > 0)) {
+                throw new IllegalArgumentException("reviewSaturation and distanceScaleKm must be positive");
+            }
+        }
+    }
+
+    private final Weights weights;
+    private final double logSaturation;
+
+    public Reranker(Weights weights) {
+        this.weights = weights;
+        this.logSaturation = Math.log1p(weights.reviewSaturation());
+    }
+
+    /**
+     * Combined score of one candidate. If {@code contributions} is not null it
+     * receives the weighted value of each signal, in {@link #SIGNALS} order.
+     */
+    public double score(double vectorScore, double averageRating, int reviewCount, boolean openToWork,
+                        double distanceKm, double[] contributions) {
+        double vector = Double.isNaN(vectorScore) ? 0 : weights.vector() * vectorScore;
+        double rating = Double.isNaN(averageRating) ? 0 : weights.rating() * Math.min(1, Math.max(0, averageRating / 5));
+        double reviews = weights.reviews() * Math.min(1, Math.log1p(Math.max(0, reviewCount)) / logSaturation);
+        double open = openToWork ? weights.openToWork() : 0;
+        double distance = Double.isNaN(distanceKm) ? 0
+                : weights.distance() * weights.distanceScaleKm() / (weights.distanceScaleKm() + Math.max(0, distanceKm));
+        if (contributions != null) {
+            contributions[0] = vector;
+            contributions[1] = rating;
+            contributions[2] = reviews;
+            contributions[3] = open;
+            contributions[4] = distance;
+        }
+        return vector + rating + reviews + open + distance;
+    }
+
+    /**
+     * Indexes of the first {@code count} scores, highest first; equal scores keep
+     * their input order. Insertion sort, so meant for short candidate lists.
+     */
+    public static int[] order(double[] scores, int count) {
+        int[] order = new int[count];
+        for (int i = 0; i < count; i++) {
+            int at = i;
+            while (at > 0 && scores[order[at - 1]] < scores[i]) {
+                order[at] = order[at - 1];
+                at--;
+            }
+            order[at] = i;
+        }
+        return order;
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.gigconnect.search;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Keyset position in a ranked result list: the score and id of the last item
+ * returned. Clients only see it as an opaque URL-safe token.
+ */
+public record SearchCursor(Double score, String id) {
+
+    public String encode() {
+        String raw = (score == null ? "" : Double.toString(score)) + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Returns null for a missing token and throws IllegalArgumentException for a
+     * malformed one.
+     */
+    public static SearchCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int split = raw.indexOf('|');
+            if (split < 0 || split == raw.length() - 1) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            Double score = split == 0 ? null : Double.valueOf(raw.substring(0, split));
+            return new SearchCursor(score, raw.substring(split + 1));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+}
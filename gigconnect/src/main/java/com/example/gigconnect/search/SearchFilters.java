@@ -0,0 +1,37 @@
+package com.example.gigconnect.search;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Canonical form of the worker filter values copied onto services. Vector search
+ * filters only support exact matches, so both the stored values and the query
+ * values are trimmed and lower-cased the same way.
+ */
+public final class SearchFilters {
+
+    private SearchFilters() {
+    }
+
+    public static String normalize(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    public static List<String> normalize(Collection<String> values) {
+        List<String> out = new ArrayList<>();
+        if (values != null) {
+            for (String value : values) {
+                String normalized = normalize(value);
+                if (normalized != null && !out.contains(normalized)) {
+                    out.add(normalized);
+                }
+            }
+        }
+        return out;
+    }
+}
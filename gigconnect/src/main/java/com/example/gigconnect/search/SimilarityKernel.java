@@ -0,0 +1,51 @@
+package com.example.gigconnect.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Similarity primitives over float vectors. Obtain the fastest implementation
+ * available in this JVM from {@link SimilarityKernels#get()}.
+ */
+public interface SimilarityKernel {
+
+    record Match(int index, float score) {
+    }
+
+    /**
+     * Dot product of {@code a} with the {@code a.length} floats of {@code block}
+     * starting at {@code offset}.
+     */
+    float dot(float[] a, float[] block, int offset);
+
+    default float dot(float[] a, float[] b) {
+        return dot(a, b, 0);
+    }
+
+    float cosine(float[] a, float[] b);
+
+    /**
+     * The {@code k} rows of a row-major block of {@code rows} vectors (each as long
+     * as the query) with the highest dot product with the query, best first. With
+     * unit vectors this is the cosine top k.
+     */
+    default List<Match> topK(float[] query, float[] block, int rows, int k) {
+        PriorityQueue<Match> best = new PriorityQueue<>((x, y) -> Float.compare(x.score(), y.score()));
+        int dims = query.length;
+        for (int row = 0; row < rows; row++) {
+            float score = dot(query, block, row * dims);
+            if (best.size() < k) {
+                best.add(new Match(row, score));
+            } else if (score > best.peek().score()) {
+                best.poll();
+                best.add(new Match(row, score));
+            }
+        }
+        List<Match> result = new ArrayList<>(best);
+        result.sort((x, y) -> Float.compare(y.score(), x.score()));
+        return result;
+    }
+
+    String name();
+}
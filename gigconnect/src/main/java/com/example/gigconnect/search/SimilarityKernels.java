@@ -0,0 +1,58 @@
+package com.example.gigconnect.search;
+
+/**
+ * Picks the similarity kernel once per JVM: the Vector API implementation when it
+ * was compiled in (Maven profile {@code simd}), the {@code jdk.incubator.vector}
+ * module is present and it is not disabled with {@code -Dsearch.simd.enabled=false};
+ * otherwise the scalar one. {@link #description()} says which one and why.
+ */
+public final class SimilarityKernels {
+
+    private record Selection(SimilarityKernel kernel, String reason) {
+    }
+
+    private static final String SIMD_KERNEL = "com.example.gigconnect.search.SimdSimilarityKernel";
+    private static final Selection SELECTION = select();
+
+    private SimilarityKernels() {
+    }
+
+    public static SimilarityKernel get() {
+        return SELECTION.kernel();
+    }
+
+    public static SimilarityKernel scalar() {
+        return new ScalarSimilarityKernel();
+    }
+
+    /**
+     * The selected kernel's name and, for the scalar fallback, the reason SIMD is not used.
+     */
+    public static String description() {
+        return SELECTION.reason() == null ? SELECTION.kernel().name()
+                : SELECTION.kernel().name() + " (" + SELECTION.reason() + ")";
+    }
+
+    private static Selection select() {
+        if ("false".equalsIgnoreCase(System.getProperty("search.simd.enabled"))) {
+            return scalarBecause("disabled with -Dsearch.simd.enabled=false");
+        }
+        // The class only exists in builds with the simd profile, so it is looked up and loaded by name
+        if (SimilarityKernels.class.getClassLoader().getResource(SIMD_KERNEL.replace('.', '/') + ".class") == null) {
+            return scalarBecause("built without the simd Maven profile");
+        }
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+            return scalarBecause("start the JVM with --add-modules jdk.incubator.vector for SIMD");
+        }
+        try {
+            SimilarityKernel simd = (SimilarityKernel) Class.forName(SIMD_KERNEL).getDeclaredConstructor().newInstance();
+            return new Selection(simd, null);
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return scalarBecause("Vector API unusable on this platform: " + e);
+        }
+    }
+
+    private static Selection scalarBecause(String reason) {
+        return new Selection(new ScalarSimilarityKernel(), reason);
+    }
+}
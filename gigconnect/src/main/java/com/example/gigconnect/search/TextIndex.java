@@ -0,0 +1,315 @@
+package com.example.gigconnect.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Inverted index for case-insensitive substring lookups over a few text fields
+ * per document. Every field is broken into word tokens and character trigrams,
+ * each with a sorted posting list of internal document numbers. A query of three
+ * or more characters intersects the posting lists of its trigrams; shorter queries
+ * go through the token vocabulary. The candidates are then checked against the
+ * stored text, so results are exact, just like an unanchored "i" regex.
+ *
+ * <p>Thread-safe: lookups share a read lock, updates take the write lock.
+ */
+public final class TextIndex {
+
+    private final int fieldCount;
+    private final Map<String, Integer> docByKey = new HashMap<>();
+    private final List<String> keyByDoc = new ArrayList<>();
+    private final List<String[]> textByDoc = new ArrayList<>();
+    private final Map<String, PostingList> trigrams = new HashMap<>();
+    private final Map<String, PostingList> tokens = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public TextIndex(int fieldCount) {
+        this.fieldCount = fieldCount;
+    }
+
+    /**
+     * Indexes the document's fields, replacing whatever was indexed for the key.
+     * Null fields are treated as empty.
+     */
+    public void put(String key, String... fields) {
+        if (fields.length != fieldCount) {
+            throw new IllegalArgumentException("Expected " + fieldCount + " fields, got " + fields.length);
+        }
+        String[] text = new String[fieldCount];
+        for (int i = 0; i < fieldCount; i++) {
+            text[i] = fields[i] == null ? "" : normalize(fields[i]);
+        }
+        lock.writeLock().lock();
+        try {
+            removeLocked(key);
+            compactIfNeeded();
+            index(key, text);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(String key) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(key);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean contains(String key) {
+        lock.readLock().lock();
+        try {
+            return docByKey.containsKey(key);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docByKey.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the keys of documents where any of the given fields contains the
+     * query, ignoring case. A blank query matches nothing.
+     */
+    public Set<String> search(String query, int... fields) {
+        String needle = query == null ? "" : normalize(query).strip();
+        Set<String> result = new LinkedHashSet<>();
+        if (needle.isEmpty()) {
+            return result;
+        }
+        lock.readLock().lock();
+        try {
+            PostingList candidates = candidates(needle);
+            for (int i = 0; i < candidates.size; i++) {
+                int doc = candidates.docs[i];
+                String[] text = textByDoc.get(doc);
+                if (text == null) {
+                    continue;
+                }
+                for (int field : fields) {
+                    if (text[field].contains(needle)) {
+                        result.add(keyByDoc.get(doc));
+                        break;
+                    }
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private PostingList candidates(String needle) {
+        if (needle.length() >= 3) {
+            List<PostingList> lists = new ArrayList<>();
+            for (String gram : trigramsOf(needle)) {
+                PostingList list = trigrams.get(gram);
+                if (list == null) {
+                    return PostingList.EMPTY;
+                }
+                lists.add(list);
+            }
+            // Start from the rarest trigram so the running intersection stays small
+            lists.sort((a, b) -> Integer.compare(a.size, b.size));
+            PostingList result = lists.get(0);
+            for (int i = 1; i < lists.size() && result.size > 0; i++) {
+                result = result.intersect(lists.get(i));
+            }
+            return result;
+        }
+        List<String> words = tokensOf(needle);
+        if (words.size() == 1 && words.get(0).equals(needle)) {
+            // One or two word characters always sit inside a single token
+            PostingList result = PostingList.EMPTY;
+            for (Map.Entry<String, PostingList> token : tokens.entrySet()) {
+                if (token.getKey().contains(needle)) {
+                    result = result.union(token.getValue());
+                }
+            }
+            return result;
+        }
+        // Very short queries with punctuation or spaces: check every live document
+        PostingList all = new PostingList();
+        for (int doc = 0; doc < textByDoc.size(); doc++) {
+            if (textByDoc.get(doc) != null) {
+                all.append(doc);
+            }
+        }
+        return all;
+    }
+
+    private void index(String key, String[] text) {
+        // Document numbers only grow, so appending keeps every posting list sorted
+        int doc = keyByDoc.size();
+        keyByDoc.add(key);
+        textByDoc.add(text);
+        docByKey.put(key, doc);
+        Set<String> grams = new LinkedHashSet<>();
+        Set<String> words = new LinkedHashSet<>();
+        for (String field : text) {
+            grams.addAll(trigramsOf(field));
+            words.addAll(tokensOf(field));
+        }
+        grams.forEach(gram -> trigrams.computeIfAbsent(gram, g -> new PostingList()).append(doc));
+        words.forEach(word -> tokens.computeIfAbsent(word, w -> new PostingList()).append(doc));
+    }
+
+    private void removeLocked(String key) {
+        Integer doc = docByKey.remove(key);
+        if (doc == null) {
+            return;
+        }
+        String[] text = textByDoc.get(doc);
+        for (String field : text) {
+            for (String gram : trigramsOf(field)) {
+                removePosting(trigrams, gram, doc);
+            }
+            for (String word : tokensOf(field)) {
+                removePosting(tokens, word, doc);
+            }
+        }
+        textByDoc.set(doc, null);
+        keyByDoc.set(doc, null);
+    }
+
+    // Updates and removals leave unused document numbers behind; renumber once they dominate
+    private void compactIfNeeded() {
+        int dead = keyByDoc.size() - docByKey.size();
+        if (dead < 1024 || dead < docByKey.size()) {
+            return;
+        }
+        List<String> keys = new ArrayList<>(docByKey.size());
+        List<String[]> texts = new ArrayList<>(docByKey.size());
+        for (int doc = 0; doc < keyByDoc.size(); doc++) {
+            if (keyByDoc.get(doc) != null) {
+                keys.add(keyByDoc.get(doc));
+                texts.add(textByDoc.get(doc));
+            }
+        }
+        docByKey.clear();
+        keyByDoc.clear();
+        textByDoc.clear();
+        trigrams.clear();
+        tokens.clear();
+        for (int i = 0; i < keys.size(); i++) {
+            index(keys.get(i), texts.get(i));
+        }
+    }
+
+    private static void removePosting(Map<String, PostingList> postings, String term, int doc) {
+        PostingList list = postings.get(term);
+        if (list != null && list.remove(doc) && list.size == 0) {
+            postings.remove(term);
+        }
+    }
+
+    static String normalize(String text) {
+        return text.toLowerCase(Locale.ROOT);
+    }
+
+    static List<String> trigramsOf(String text) {
+        List<String> grams = new ArrayList<>(Math.max(0, text.length() - 2));
+        for (int i = 0; i + 3 <= text.length(); i++) {
+            grams.add(text.substring(i, i + 3));
+        }
+        return grams;
+    }
+
+    static List<String> tokensOf(String text) {
+        List<String> words = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                words.add(text.substring(start, i));
+                start = -1;
+            }
+        }
+        return words;
+    }
+
+    /**
+     * Sorted, growable array of document numbers.
+     */
+    private static final class PostingList {
+
+        static final PostingList EMPTY = new PostingList();
+
+        int[] docs = new int[4];
+        int size;
+
+        void append(int doc) {
+            if (size > 0 && docs[size - 1] == doc) {
+                return;
+            }
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+            }
+            docs[size++] = doc;
+        }
+
+        boolean remove(int doc) {
+            int at = Arrays.binarySearch(docs, 0, size, doc);
+            if (at < 0) {
+                return false;
+            }
+            System.arraycopy(docs, at + 1, docs, at, size - at - 1);
+            size--;
+            return true;
+        }
+
+        PostingList intersect(PostingList other) {
+            PostingList out = new PostingList();
+            int i = 0, j = 0;
+            while (i < size && j < other.size) {
+                if (docs[i] < other.docs[j]) {
+                    i++;
+                } else if (docs[i] > other.docs[j]) {
+                    j++;
+                } else {
+                    out.append(docs[i]);
+                    i++;
+                    j++;
+                }
+            }
+            return out;
+        }
+
+        PostingList union(PostingList other) {
+            PostingList out = new PostingList();
+            int i = 0, j = 0;
+            while (i < size || j < other.size) {
+                if (j == other.size || (i < size && docs[i] < other.docs[j])) {
+                    out.append(docs[i++]);
+                } else if (i == size || other.docs[j] < docs[i]) {
+                    out.append(other.docs[j++]);
+                } else {
+                    out.append(docs[i]);
+                    i++;
+                    j++;
+                }
+            }
+            return out;
+        }
+    }
+}
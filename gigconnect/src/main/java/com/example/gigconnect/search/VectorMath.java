@@ -0,0 +1,99 @@
+package com.example.gigconnect.search;
+
+import java.util.List;
+
+/**
+ * Small helpers for working with embeddings as primitive float arrays. Float
+ * dot products and cosines run on {@link SimilarityKernels#get()}.
+ */
+public final class VectorMath {
+
+    private VectorMath() {
+    }
+
+    public static float dot(float[] a, float[] b) {
+        return SimilarityKernels.get().dot(a, b);
+    }
+
+    // Query against int8 codes; multiply by the code scale to get the dot product
+    public static float dot(float[] a, byte[] b) {
+        float sum = 0f;
+        for (int i = 0; i < a.length; i++) {
+            sum += a[i] * b[i];
+        }
+        return sum;
+    }
+
+    public static int dot(byte[] a, byte[] b) {
+        int sum = 0;
+        for (int i = 0; i < a.length; i++) {
+            sum += a[i] * b[i];
+        }
+        return sum;
+    }
+
+    /**
+     * Symmetric int8 scalar quantization: each component becomes round(v / scale)
+     * with scale = max|v| / 127, so code * scale approximates the component.
+     */
+    public static float int8Scale(float[] vector) {
+        float maxAbs = 0f;
+        for (float v : vector) {
+            maxAbs = Math.max(maxAbs, Math.abs(v));
+        }
+        return maxAbs == 0f ? 1f : maxAbs / 127f;
+    }
+
+    public static byte[] quantizeInt8(float[] vector, float scale) {
+        byte[] out = new byte[vector.length];
+        for (int i = 0; i < vector.length; i++) {
+            out[i] = (byte) Math.max(-127, Math.min(127, Math.round(vector[i] / scale)));
+        }
+        return out;
+    }
+
+    public static float[] dequantizeInt8(byte[] codes, float scale) {
+        float[] out = new float[codes.length];
+        for (int i = 0; i < codes.length; i++) {
+            out[i] = codes[i] * scale;
+        }
+        return out;
+    }
+
+    public static float cosine(float[] a, float[] b) {
+        return SimilarityKernels.get().cosine(a, b);
+    }
+
+    // Cosine in [-1, 1] on the [0, 1] scale Atlas reports as vectorSearchScore for cosine indexes
+    public static double unitScore(double cosine) {
+        return (1 + cosine) / 2;
+    }
+
+    // Returns a unit-length copy so cosine similarity reduces to a dot product
+    public static float[] normalize(float[] vector) {
+        float norm = 0f;
+        for (float v : vector) {
+            norm += v * v;
+        }
+        float[] out = new float[vector.length];
+        if (norm == 0f) {
+            return out;
+        }
+        float inv = (float) (1.0 / Math.sqrt(norm));
+        for (int i = 0; i < vector.length; i++) {
+            out[i] = vector[i] * inv;
+        }
+        return out;
+    }
+
+    public static float[] toFloatArray(List<? extends Number> values) {
+        if (values == null) {
+            return null;
+        }
+        float[] out = new float[values.size()];
+        for (int i = 0; i < out.length; i++) {
+            out[i] = values.get(i).floatValue();
+        }
+        return out;
+    }
+}
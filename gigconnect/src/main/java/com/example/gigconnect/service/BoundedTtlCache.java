@@ -0,0 +1,260 @@
+package com.example.gigconnect.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Bounded LRU map whose entries expire a fixed time after they were stored,
+ * shared by the application's read-through caches. Every eviction bumps a
+ * generation, so a value loaded before a write is not cached after it. Null
+ * values are never cached. Registers {@code <prefix>.requests} (hit/miss),
+ * {@code .invalidations}, {@code .evictions}, {@code .size} and {@code .hit.ratio}.
+ *
+ * <p>Values are stored and returned as given; callers that hand them out must
+ * copy mutable ones.
+ */
+class BoundedTtlCache<K, V> {
+
+    private record Entry<V>(V value, long expiresAt) {
+    }
+
+    private final boolean enabled;
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final LinkedHashMap<K, Entry<V>> entries;
+    // Guarded by entries
+    private long generation;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter invalidations;
+    private final Counter evictions;
+
+    BoundedTtlCache(String metricPrefix, boolean enabled, int maxEntries, long ttlMillis, MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttlMillis;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                if (size() > BoundedTtlCache.this.maxEntries) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+        this.hits = Counter.builder(metricPrefix + ".requests").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder(metricPrefix + ".requests").tag("result", "miss").register(meterRegistry);
+        this.invalidations = Counter.builder(metricPrefix + ".invalidations").register(meterRegistry);
+        this.evictions = Counter.builder(metricPrefix + ".evictions").register(meterRegistry);
+        Gauge.builder(metricPrefix + ".size", this, BoundedTtlCache::size).register(meterRegistry);
+        Gauge.builder(metricPrefix + ".hit.ratio", this, BoundedTtlCache::hitRatio).register(meterRegistry);
+    }
+
+    /**
+     * Returns the cached value, or calls the loader and caches a non-null result.
+     * Loader exceptions propagate.
+     */
+    V get(K key, Supplier<V> loader) {
+        return get(key, loader, value -> true);
+    }
+
+    /**
+     * Like {@link #get(Object, Supplier)}, but only loaded values that pass
+     * {@code cacheable} are kept.
+     */
+    V get(K key, Supplier<V> loader, Predicate<? super V> cacheable) {
+        if (!enabled) {
+            return loader.get();
+        }
+        long seenGeneration;
+        synchronized (entries) {
+            V cached = liveValue(key, System.currentTimeMillis());
+            if (cached != null) {
+                hits.increment();
+                return cached;
+            }
+            seenGeneration = generation;
+        }
+
+        misses.increment();
+        V value = loader.get();
+        if (value != null && cacheable.test(value)) {
+            synchronized (entries) {
+                if (seenGeneration == generation) {
+                    entries.put(key, new Entry<>(value, System.currentTimeMillis() + ttlMillis));
+                }
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Bulk variant of {@link #get(Object, Supplier)}: the loader is called once with
+     * all the keys that missed and returns the values it found. Keys without a
+     * value are absent from the result.
+     */
+    Map<K, V> getAll(Collection<K> keys, Function<List<K>, Map<K, V>> loader) {
+        if (!enabled) {
+            return loader.apply(List.copyOf(keys));
+        }
+        Map<K, V> found = new HashMap<>();
+        List<K> missing = new ArrayList<>();
+        long seenGeneration;
+        synchronized (entries) {
+            long now = System.currentTimeMillis();
+            for (K key : keys) {
+                V cached = liveValue(key, now);
+                if (cached != null) {
+                    found.put(key, cached);
+                } else {
+                    missing.add(key);
+                }
+            }
+            seenGeneration = generation;
+        }
+        hits.increment(found.size());
+        if (missing.isEmpty()) {
+            return found;
+        }
+
+        misses.increment(missing.size());
+        Map<K, V> loaded = loader.apply(missing);
+        synchronized (entries) {
+            if (seenGeneration == generation) {
+                long expiresAt = System.currentTimeMillis() + ttlMillis;
+                loaded.forEach((key, value) -> {
+                    if (value != null) {
+                        entries.put(key, new Entry<>(value, expiresAt));
+                    }
+                });
+            }
+        }
+        found.putAll(loaded);
+        return found;
+    }
+
+    /**
+     * Non-loading lookup; counts as a request.
+     */
+    V getIfPresent(K key) {
+        if (!enabled) {
+            return null;
+        }
+        V cached;
+        synchronized (entries) {
+            cached = liveValue(key, System.currentTimeMillis());
+        }
+        (cached != null ? hits : misses).increment();
+        return cached;
+    }
+
+    /**
+     * Whether an unexpired value is cached, without counting a request.
+     */
+    boolean contains(K key) {
+        if (!enabled) {
+            return false;
+        }
+        synchronized (entries) {
+            Entry<V> entry = entries.get(key);
+            return entry != null && entry.expiresAt() > System.currentTimeMillis();
+        }
+    }
+
+    void put(K key, V value) {
+        if (!enabled || value == null) {
+            return;
+        }
+        synchronized (entries) {
+            entries.put(key, new Entry<>(value, System.currentTimeMillis() + ttlMillis));
+        }
+    }
+
+    void evict(K key) {
+        boolean removed;
+        synchronized (entries) {
+            generation++;
+            removed = entries.remove(key) != null;
+        }
+        if (removed) {
+            invalidations.increment();
+        }
+    }
+
+    void evictIf(BiPredicate<? super K, ? super V> matcher) {
+        int removed = 0;
+        synchronized (entries) {
+            generation++;
+            Iterator<Map.Entry<K, Entry<V>>> it = entries.entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<K, Entry<V>> entry = it.next();
+                if (matcher.test(entry.getKey(), entry.getValue().value())) {
+                    it.remove();
+                    removed++;
+                }
+            }
+        }
+        invalidations.increment(removed);
+    }
+
+    void clear() {
+        synchronized (entries) {
+            generation++;
+            entries.clear();
+        }
+        invalidations.increment();
+    }
+
+    int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    // Drops expired entries so they do not sit in memory until they are next looked up
+    void purgeExpired() {
+        long now = System.currentTimeMillis();
+        synchronized (entries) {
+            Iterator<Entry<V>> it = entries.values().iterator();
+            while (it.hasNext()) {
+                if (it.next().expiresAt() <= now) {
+                    it.remove();
+                    evictions.increment();
+                }
+            }
+        }
+    }
+
+    // Caller holds the lock; an expired entry is dropped on the way
+    private V liveValue(K key, long now) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt() > now) {
+            return entry.value();
+        }
+        entries.remove(key);
+        evictions.increment();
+        return null;
+    }
+
+    private double hitRatio() {
+        double total = hits.count() + misses.count();
+        return total == 0 ? 0 : hits.count() / total;
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.gigconnect.service;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A text embedding provider. Vectors from different models live in different
+ * spaces, so every stored vector records the {@link #model()} that produced it.
+ */
+public interface Embedder {
+
+    String model();
+
+    /**
+     * Completes with the text's vector, or exceptionally if the provider fails.
+     */
+    CompletableFuture<float[]> embedAsync(String text);
+}
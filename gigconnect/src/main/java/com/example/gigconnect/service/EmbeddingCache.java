@@ -0,0 +1,64 @@
+package com.example.gigconnect.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.function.Function;
+
+/**
+ * Bounded LRU cache of text embeddings keyed by normalized text (trimmed,
+ * lower-cased, whitespace collapsed). Entries expire after a fixed TTL so a
+ * vectorizer model upgrade is picked up without a restart. Vectors are shared
+ * with every caller and must not be modified.
+ */
+@Component
+public class EmbeddingCache {
+
+    private final BoundedTtlCache<String, float[]> cache;
+
+    public EmbeddingCache(@Value("${embedding.cache.max-entries:10000}") int maxEntries,
+                          @Value("${embedding.cache.ttl-minutes:60}") long ttlMinutes,
+                          MeterRegistry meterRegistry) {
+        this.cache = new BoundedTtlCache<>("embedding.cache", true, maxEntries, ttlMinutes * 60_000, meterRegistry);
+    }
+
+    /**
+     * Returns the cached vector for the text, or calls the loader and caches its
+     * result. Null results (vectorizer failures) are not cached.
+     */
+    public float[] get(String text, Function<String, float[]> loader) {
+        if (text == null) {
+            return null;
+        }
+        return cache.get(normalize(text), () -> loader.apply(text));
+    }
+
+    /**
+     * Non-loading lookup for callers that embed asynchronously themselves.
+     */
+    public float[] getIfPresent(String text) {
+        return text == null ? null : cache.getIfPresent(normalize(text));
+    }
+
+    public void put(String text, float[] vector) {
+        if (text != null) {
+            cache.put(normalize(text), vector);
+        }
+    }
+
+    public int size() {
+        return cache.size();
+    }
+
+    @Scheduled(fixedDelayString = "${embedding.cache.purge-interval-ms:60000}")
+    public void purgeExpired() {
+        cache.purgeExpired();
+    }
+
+    static String normalize(String text) {
+        return text.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,273 @@
+package com.example.gigconnect.service;
+
+import com.example.gigconnect.model.EmbeddingTask;
+import com.example.gigconnect.model.GigService;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Embeds services in the background. Writes only record an outbox entry keyed by
+ * the service id; a scheduled worker claims due entries, embeds them through
+ * {@link EmbeddingService} and stores the vector together with the content hash
+ * and model it was computed from, plus the fallback model's vector. Failures are
+ * retried with exponential backoff.
+ *
+ * <p>The service and its task are two writes, so a crash between them loses the
+ * task. {@link #reconcile()} periodically re-queues services whose stored content
+ * hash does not match their current text, which covers both lost creates and
+ * lost edits.
+ */
+@Service
+public class EmbeddingOutboxService {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmbeddingOutboxService.class);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private EmbeddingService embeddingService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${embedding.outbox.batch-size:50}")
+    private int batchSize;
+
+    @Value("${embedding.outbox.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${embedding.outbox.base-backoff-seconds:5}")
+    private long baseBackoffSeconds;
+
+    @Value("${embedding.outbox.max-backoff-seconds:600}")
+    private long maxBackoffSeconds;
+
+    @Value("${embedding.outbox.lease-seconds:60}")
+    private long leaseSeconds;
+
+    /**
+     * Asks for the service to be (re)embedded. Repeated calls before the worker
+     * gets to it collapse into a single task.
+     */
+    public void enqueue(String serviceId) {
+        Update update = new Update()
+                .set("status", "PENDING")
+                .set("attempts", 0)
+                .set("nextAttemptAt", LocalDateTime.now())
+                .unset("lastError")
+                .inc("revision", 1)
+                .setOnInsert("createdAt", LocalDateTime.now());
+        mongoTemplate.upsert(new Query(Criteria.where("_id").is(serviceId)), update, EmbeddingTask.class);
+    }
+
+    @Scheduled(fixedDelayString = "${embedding.outbox.poll-interval-ms:1000}")
+    public void processDueTasks() {
+        List<EmbeddingTask> tasks;
+        try {
+            tasks = claimDueTasks();
+        } catch (Exception e) {
+            logger.warn("Could not poll the embedding outbox: {}", e.getMessage());
+            return;
+        }
+        if (tasks.isEmpty()) {
+            return;
+        }
+
+        List<String> ids = tasks.stream().map(EmbeddingTask::getId).toList();
+        Map<String, GigService> services = mongoTemplate.find(new Query(Criteria.where("_id").in(ids)), GigService.class)
+                .stream()
+                .collect(Collectors.toMap(GigService::getId, Function.identity()));
+
+        List<CompletableFuture<Void>> work = new ArrayList<>(tasks.size());
+        for (EmbeddingTask task : tasks) {
+            GigService service = services.get(task.getId());
+            if (service == null) {
+                complete(task); // Deleted since it was queued
+                continue;
+            }
+            String hash = GigServiceService.contentHash(service.getTitle(), service.getDescription());
+            if (hash.equals(service.getContentHash()) && service.getServiceVector() != null
+                    && embeddingService.primaryModel().equals(service.getEmbeddingModel())
+                    && (service.getFallbackVector() != null || embeddingService.fallbackModel() == null)) {
+                complete(task); // Vectors already match the current text and models
+                continue;
+            }
+            String text = GigServiceService.embeddingText(service.getTitle(), service.getDescription());
+            work.add(embeddingService.embedAsync(text)
+                    .handle((embedding, error) -> {
+                        if (embedding != null) {
+                            store(service, hash, embedding, embeddingService.fallbackVector(text, embedding));
+                            complete(task);
+                        } else {
+                            retry(task, error != null ? error.getMessage() : "Embedder returned no vector");
+                        }
+                        return null;
+                    }));
+        }
+        CompletableFuture.allOf(work.toArray(CompletableFuture[]::new)).exceptionally(error -> null).join();
+    }
+
+    private List<EmbeddingTask> claimDueTasks() {
+        LocalDateTime now = LocalDateTime.now();
+        // Due tasks, plus tasks whose worker died without releasing them
+        Query due = new Query(new Criteria().orOperator(
+                Criteria.where("status").is("PENDING").and("nextAttemptAt").lte(now),
+                Criteria.where("status").is("PROCESSING").and("lockedUntil").lt(now)));
+        Update claim = new Update()
+                .set("status", "PROCESSING")
+                .set("lockedUntil", now.plusSeconds(leaseSeconds));
+        List<EmbeddingTask> claimed = new ArrayList<>();
+        while (claimed.size() < batchSize) {
+            EmbeddingTask task = mongoTemplate.findAndModify(due, claim,
+                    FindAndModifyOptions.options().returnNew(true), EmbeddingTask.class);
+            if (task == null) {
+                break;
+            }
+            claimed.add(task);
+        }
+        return claimed;
+    }
+
+    /**
+     * Queues the services that were embedded by the fallback model while the
+     * primary was failing, a batch at a time, once the primary answers again.
+     */
+    @Scheduled(fixedDelayString = "${embedding.outbox.reembed-interval-ms:300000}")
+    public void reembedFallbackVectors() {
+        if (!embeddingService.isPrimaryHealthy()) {
+            return;
+        }
+        try {
+            Query fallback = new Query(Criteria.where("embeddingModel").exists(true).ne(embeddingService.primaryModel()))
+                    .limit(batchSize);
+            fallback.fields().include("_id");
+            List<GigService> services = mongoTemplate.find(fallback, GigService.class);
+            services.forEach(service -> enqueue(service.getId()));
+            if (!services.isEmpty()) {
+                logger.info("Queued {} services for re-embedding with {}", services.size(), embeddingService.primaryModel());
+            }
+        } catch (Exception e) {
+            logger.warn("Could not queue fallback vectors for re-embedding: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Queues every service whose content hash is missing or stale and that has no
+     * outbox task, e.g. because the process died between saving it and enqueueing.
+     * Failed tasks are left alone; they are retried by the next edit.
+     */
+    @Scheduled(initialDelayString = "${embedding.outbox.reconcile-interval-ms:3600000}",
+            fixedDelayString = "${embedding.outbox.reconcile-interval-ms:3600000}")
+    public void reconcile() {
+        Query all = new Query();
+        all.fields().include("title").include("description").include("contentHash");
+        List<String> stale = new ArrayList<>();
+        int queued = 0;
+        try (Stream<GigService> services = mongoTemplate.stream(all, GigService.class)) {
+            for (GigService service : (Iterable<GigService>) services::iterator) {
+                if (!GigServiceService.contentHash(service.getTitle(), service.getDescription())
+                        .equals(service.getContentHash())) {
+                    stale.add(service.getId());
+                }
+                if (stale.size() >= batchSize) {
+                    queued += enqueueUntracked(stale);
+                    stale.clear();
+                }
+            }
+            queued += enqueueUntracked(stale);
+        } catch (Exception e) {
+            logger.warn("Could not reconcile service vectors with their text: {}", e.getMessage());
+        }
+        if (queued > 0) {
+            logger.info("Queued {} services whose vectors do not match their text", queued);
+        }
+    }
+
+    private int enqueueUntracked(List<String> serviceIds) {
+        if (serviceIds.isEmpty()) {
+            return 0;
+        }
+        Query tracked = new Query(Criteria.where("_id").in(serviceIds));
+        tracked.fields().include("_id");
+        Set<String> queued = mongoTemplate.find(tracked, EmbeddingTask.class).stream()
+                .map(EmbeddingTask::getId)
+                .collect(Collectors.toSet());
+        int count = 0;
+        for (String id : serviceIds) {
+            if (!queued.contains(id)) {
+                enqueue(id);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private void store(GigService service, String hash, EmbeddingService.Embedding embedding, float[] fallbackVector) {
+        // Only write if the text is still the one we embedded; a newer edit has its own task
+        Query unchanged = new Query(Criteria.where("_id").is(service.getId())
+                .and("title").is(service.getTitle())
+                .and("description").is(service.getDescription()));
+        Update update = new Update()
+                .set("serviceVector", embedding.vector())
+                .set("embeddingModel", embedding.model())
+                .set("contentHash", hash);
+        if (fallbackVector != null) {
+            update.set("fallbackVector", fallbackVector);
+        }
+        if (mongoTemplate.updateFirst(unchanged, update, GigService.class).getMatchedCount() == 0) {
+            return;
+        }
+        service.setServiceVector(embedding.vector());
+        service.setEmbeddingModel(embedding.model());
+        service.setContentHash(hash);
+        if (fallbackVector != null) {
+            service.setFallbackVector(fallbackVector);
+        }
+        // Field updates bypass the mapping events, so tell the in-memory indexes ourselves
+        eventPublisher.publishEvent(new AfterSaveEvent<>(service, new Document("_id", service.getId()), "services"));
+    }
+
+    // Matching on the revision keeps an enqueue that arrived while we worked
+    private void complete(EmbeddingTask task) {
+        mongoTemplate.remove(new Query(Criteria.where("_id").is(task.getId()).and("revision").is(task.getRevision())),
+                EmbeddingTask.class);
+    }
+
+    private void retry(EmbeddingTask task, String error) {
+        int attempts = task.getAttempts() + 1;
+        Update update = new Update().set("attempts", attempts).set("lastError", error).unset("lockedUntil");
+        if (attempts >= maxAttempts) {
+            logger.error("Giving up embedding service {} after {} attempts: {}", task.getId(), attempts, error);
+            update.set("status", "FAILED");
+        } else {
+            long backoff = Math.min(maxBackoffSeconds, baseBackoffSeconds << Math.min(attempts - 1, 20));
+            logger.warn("Embedding service {} failed (attempt {}), retrying in {}s: {}", task.getId(), attempts, backoff, error);
+            update.set("status", "PENDING").set("nextAttemptAt", LocalDateTime.now().plusSeconds(backoff));
+        }
+        mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(task.getId()).and("revision").is(task.getRevision())),
+                update, EmbeddingTask.class);
+    }
+}
@@ -0,0 +1,186 @@
+package com.example.gigconnect.service;
+
+import com.example.gigconnect.model.GigService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Embeds text with the configured primary {@link Embedder} and, when it fails
+ * or times out, with the fallback one. Every result carries the model that
+ * produced it. Only primary vectors go into the embedding cache, so queries
+ * switch back to the primary model as soon as it recovers.
+ *
+ * <p>Every service also stores the fallback model's vector next to the primary
+ * one, so a query embedded by the fallback is compared with the whole catalog
+ * rather than only with the services embedded during the outage.
+ */
+@Service
+public class EmbeddingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmbeddingService.class);
+
+    // fallback: produced by the fallback embedder, so it must be searched against the services' fallback vectors
+    public record Embedding(float[] vector, String model, boolean fallback) {
+
+        public Embedding(float[] vector, String model) {
+            this(vector, model, false);
+        }
+    }
+
+    @Autowired
+    private VectorizerClient vectorizerClient;
+
+    @Autowired
+    private LocalEmbedder localEmbedder;
+
+    @Autowired
+    private EmbeddingCache embeddingCache;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Value("${embedding.primary:vectorizer}")
+    private String primaryName;
+
+    @Value("${embedding.fallback:local}")
+    private String fallbackName;
+
+    @Value("${vectorizer.timeout-ms:10000}")
+    private long timeoutMs;
+
+    private final Counter fallbacks;
+    private Embedder primary;
+    private Embedder fallback;
+    private volatile boolean primaryHealthy = true;
+
+    public EmbeddingService(MeterRegistry meterRegistry) {
+        this.fallbacks = Counter.builder("embedding.fallbacks")
+                .description("Texts embedded by the fallback embedder because the primary failed")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void selectEmbedders() {
+        primary = embedderNamed(primaryName);
+        fallback = "none".equals(fallbackName) ? null : embedderNamed(fallbackName);
+        if (fallback == primary) {
+            fallback = null;
+        }
+        logger.info("Embedding with {} (fallback: {})", primary.model(), fallback == null ? "none" : fallback.model());
+    }
+
+    public String primaryModel() {
+        return primary.model();
+    }
+
+    /**
+     * The model of the vectors stored as fallbackVector, or null without a fallback.
+     */
+    public String fallbackModel() {
+        return fallback == null ? null : fallback.model();
+    }
+
+    /**
+     * The fallback model's vector of the text to store next to {@code embedding};
+     * null without a fallback or if it fails. Reuses the embedding when the
+     * fallback produced it.
+     */
+    public float[] fallbackVector(String text, Embedding embedding) {
+        if (embedding != null && embedding.fallback()) {
+            return embedding.vector();
+        }
+        if (fallback == null) {
+            return null;
+        }
+        try {
+            return fallback.embedAsync(text).join();
+        } catch (Exception e) {
+            logger.warn("Fallback embedder failed for text: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Whether the last call to the primary embedder succeeded.
+     */
+    public boolean isPrimaryHealthy() {
+        return primaryHealthy;
+    }
+
+    public CompletableFuture<Embedding> embedAsync(String text) {
+        float[] cached = embeddingCache.getIfPresent(text);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(new Embedding(cached, primary.model()));
+        }
+        CompletableFuture<Embedding> result = primary.embedAsync(text)
+                .orTimeout(timeoutMs, TimeUnit.MILLISECONDS)
+                .thenApply(vector -> {
+                    primaryHealthy = true;
+                    embeddingCache.put(text, vector);
+                    return new Embedding(vector, primary.model());
+                });
+        if (fallback == null) {
+            return result;
+        }
+        return result.exceptionallyCompose(error -> {
+            primaryHealthy = false;
+            fallbacks.increment();
+            return fallback.embedAsync(text).thenApply(vector -> new Embedding(vector, fallback.model(), true));
+        });
+    }
+
+    /**
+     * Blocking variant; returns null when no embedder could produce a vector.
+     */
+    public Embedding embed(String text) {
+        if (text == null) {
+            return null;
+        }
+        try {
+            return embedAsync(text).join();
+        } catch (Exception e) {
+            logger.error("Failed to generate vector for text: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    // Vectors stored before models were recorded all came from the vectorizer
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void recordLegacyModel() {
+        try {
+            long tagged = mongoTemplate.updateMulti(
+                    new Query(Criteria.where("serviceVector").ne(null).and("embeddingModel").exists(false)),
+                    new Update().set("embeddingModel", vectorizerClient.model()), GigService.class).getModifiedCount();
+            if (tagged > 0) {
+                logger.info("Recorded model {} on {} existing service vectors", vectorizerClient.model(), tagged);
+            }
+        } catch (Exception e) {
+            logger.warn("Could not record the model of existing service vectors: {}", e.getMessage());
+        }
+    }
+
+    private Embedder embedderNamed(String name) {
+        return switch (name) {
+            case "vectorizer" -> vectorizerClient;
+            case "local" -> localEmbedder;
+            default -> throw new IllegalStateException("Unknown embedder '" + name + "', expected vectorizer or local");
+        };
+    }
+}
@@ -1,19 +1,26 @@
 package com.example.gigconnect.service;
 
+import com.example.gigconnect.dto.VectorRecallReportDTO;
 import com.example.gigconnect.model.GigService;
 import com.example.gigconnect.model.User;
 import com.example.gigconnect.repository.GigServiceRepository;
+import com.example.gigconnect.repository.GigServiceVectorIndex;
+import com.example.gigconnect.repository.SuggestIndex;
 import com.example.gigconnect.repository.UserRepository;
+import com.example.gigconnect.search.PrefixTrie;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import jakarta.validation.Valid; 
 
-import org.springframework.web.client.RestTemplate; // <-- ADD
-import org.slf4j.Logger; // <-- ADD
-import org.slf4j.LoggerFactory; // <-- ADD
-import java.util.List; // <-- ADD
-import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
 import java.util.List;
 
 @Service
@@ -26,8 +33,25 @@ public class GigServiceService {
     private UserRepository userRepository; 
 
     @Autowired
-    private RestTemplate restTemplate; 
-    private final String vectorizerUrl = "http://localhost:5001/vectorize";
+    private EmbeddingOutboxService embeddingOutbox;
+
+    @Autowired
+    private WorkerFieldsService workerFieldsService;
+
+    @Autowired
+    private SearchResultCache searchResultCache;
+
+    @Autowired
+    private ProfileCache profileCache;
+
+    @Autowired(required = false)
+    private SuggestIndex suggestIndex;
+
+    @Autowired(required = false)
+    private GigServiceVectorIndex vectorIndex;
+
+    @Value("${search.suggest.max-results:10}")
+    private int maxSuggestions;
     private static final Logger logger = LoggerFactory.getLogger(GigServiceService.class);
 
     public GigService createService(@Valid GigService service, String email) {
@@ -36,11 +60,40 @@ public class GigServiceService {
             throw new RuntimeException("Only GIG_WORKERs can create services");
         }
         service.setUserId(user.getId()); 
+        workerFieldsService.copyTo(service, user);
+        service.setServiceVector(null);
+        service.setContentHash(null);
+
+        GigService saved = gigServiceRepository.save(service);
+        // Vector is added in the background; if we die before this, the outbox's reconcile pass queues it
+        embeddingOutbox.enqueue(saved.getId());
+        return saved;
+    }
 
-        List<Double> vector = getVectorForService(service.getTitle(), service.getDescription());
-        service.setServiceVector(vector); 
+    /**
+     * Typeahead terms for the prefix, most used first. Answered from memory only;
+     * empty until the suggest index has loaded.
+     */
+    public List<String> suggest(String prefix, Integer limit) {
+        if (suggestIndex == null || !suggestIndex.isReady() || prefix == null || prefix.isBlank()) {
+            return new ArrayList<>();
+        }
+        int size = limit == null ? maxSuggestions : Math.max(1, Math.min(limit, maxSuggestions));
+        return suggestIndex.suggest(prefix, size).stream().map(PrefixTrie.Suggestion::text).toList();
+    }
 
-        return gigServiceRepository.save(service);
+    /**
+     * Recall of the in-memory vector index against exact search, see
+     * {@link GigServiceVectorIndex#recallReport(int, int)}.
+     */
+    public VectorRecallReportDTO vectorRecallReport(int sampleSize, int k) {
+        if (vectorIndex == null) {
+            throw new IllegalStateException("The in-memory vector index is not enabled (vector.backend=hnsw)");
+        }
+        if (sampleSize < 1 || sampleSize > 1000 || k < 1 || k > 100) {
+            throw new IllegalArgumentException("sample must be 1-1000 and k 1-100");
+        }
+        return vectorIndex.recallReport(sampleSize, k);
     }
 
     public GigService getService(String id) {
@@ -62,25 +115,29 @@ public class GigServiceService {
         existingService.setDescription(updatedService.getDescription());
         existingService.setPrice(updatedService.getPrice());
         existingService.setCategory(updatedService.getCategory()); 
-        List<Double> vector = getVectorForService(updatedService.getTitle(), updatedService.getDescription());
-        existingService.setServiceVector(vector);
-        return gigServiceRepository.save(existingService);
+        workerFieldsService.copyTo(existingService, user);
+        GigService saved = gigServiceRepository.save(existingService);
+        // Re-embed only when the text changed since the stored vector was computed
+        boolean textChanged = !contentHash(saved.getTitle(), saved.getDescription()).equals(saved.getContentHash());
+        if (textChanged || saved.getServiceVector() == null) {
+            embeddingOutbox.enqueue(saved.getId());
+        }
+        return saved;
     } 
-    private List<Double> getVectorForService(String title, String description) {
+
+    // The text a service is embedded from; shared with the background embedders
+    static String embeddingText(String title, String description) {
+        return title + ". " + description;
+    }
+
+    static String contentHash(String title, String description) {
         try {
-            String combinedText = title + ". " + description;
-            Map<String, String> requestBody = Map.of("text", combinedText);
-            
-            // Call the Python service
-            Map<String, Object> response = restTemplate.postForObject(vectorizerUrl, requestBody, Map.class);
-            
-            if (response != null && response.containsKey("vector")) {
-                return (List<Double>) response.get("vector");
-            }
-        } catch (Exception e) {
-            logger.error("Failed to generate vector for service: " + e.getMessage());
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(embeddingText(title, description).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
         }
-        return null; // Don't fail the operation if vectorizing fails
     }
 
     public void deleteService(String id, String email) {
@@ -90,6 +147,9 @@ public class GigServiceService {
             throw new RuntimeException("Not authorized to delete this service");
         }
         gigServiceRepository.delete(service);
+        // Saves are followed through the mapping events
+        searchResultCache.evictWorker(service.getUserId());
+        profileCache.evict(service.getUserId());
     } 
     // GigServiceService.java
 public List<GigService> getMyServices(String email) {
@@ -98,33 +158,5 @@ public List<GigService> getMyServices(String email) {
         throw new RuntimeException("Only GIG_WORKERs can view their services");
     }
     return gigServiceRepository.findByUserId(user.getId());
-}  
-
-// Inside /src/main/java/com/example/gigconnect/service/GigServiceService.java
-//
-
-    public String backfillServiceVectors() {
-        logger.info("Starting vector backfill...");
-        List<GigService> allServices = gigServiceRepository.findAll();
-        int count = 0;
-        for (GigService service : allServices) {
-            // Check if vector is missing
-            if (service.getServiceVector() == null || service.getServiceVector().isEmpty()) {
-                try {
-                    // Call the same helper method you already built
-                    List<Double> vector = getVectorForService(service.getTitle(), service.getDescription());
-                    service.setServiceVector(vector);
-                    
-                    // Save directly to the repository, bypassing auth checks
-                    gigServiceRepository.save(service); 
-                    count++;
-                } catch (Exception e) {
-                    logger.error("Failed to backfill vector for service: " + service.getId(), e);
-                }
-            }
-        }
-        String message = "Backfill complete. Updated " + count + " services.";
-        logger.info(message);
-        return message;
-    }
-}
\ No newline at end of file
+}
+}
@@ -0,0 +1,34 @@
+package com.example.gigconnect.service;
+
+import com.example.gigconnect.search.HashingEmbedder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * In-JVM embedder backed by {@link HashingEmbedder}. Always available, so it
+ * keeps new services searchable while the vectorizer is down; its dimensions
+ * should match the vectorizer's so both fit the same vector index.
+ */
+@Component
+public class LocalEmbedder implements Embedder {
+
+    private final HashingEmbedder embedder;
+
+    public LocalEmbedder(@Value("${embedding.local.dimensions:384}") int dimensions) {
+        this.embedder = new HashingEmbedder(dimensions);
+    }
+
+    @Override
+    public String model() {
+        return "local-hashing-" + embedder.dimensions();
+    }
+
+    @Override
+    public CompletableFuture<float[]> embedAsync(String text) {
+        float[] vector = embedder.embed(text);
+        return vector != null ? CompletableFuture.completedFuture(vector)
+                : CompletableFuture.failedFuture(new IllegalArgumentException("Nothing to embed in the text"));
+    }
+}
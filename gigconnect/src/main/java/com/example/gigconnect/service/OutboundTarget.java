@@ -0,0 +1,212 @@
+package com.example.gigconnect.service;
+
+import com.example.gigconnect.exception.OutboundUnavailableException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClientResponseException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+/**
+ * Guards the calls to one external service. A bulkhead caps the calls in
+ * flight, and a circuit breaker opens after {@code failureThreshold} consecutive
+ * failures: while open, calls fail immediately instead of waiting for timeouts.
+ * After {@code openMillis} a single trial call is let through; its outcome
+ * closes the breaker or opens it again. Rejected calls throw
+ * {@link OutboundUnavailableException}.
+ *
+ * <p>Only outages count as failures: IO errors, timeouts and 5xx responses (see
+ * {@link #isOutage}). Other exceptions, such as 4xx responses, are the caller's
+ * problem; they are passed on without touching the breaker.
+ */
+public class OutboundTarget {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    @FunctionalInterface
+    public interface Call<T, E extends Exception> {
+        T run() throws E;
+    }
+
+    private final String name;
+    private final RestTemplate restTemplate;
+    private final int maxConcurrent;
+    private final int failureThreshold;
+    private final long openMillis;
+    private final Semaphore permits;
+
+    // Guarded by this
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private boolean trialInFlight;
+
+    private final AtomicLong successes = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong ignored = new AtomicLong();
+    private final AtomicLong rejectedOpen = new AtomicLong();
+    private final AtomicLong rejectedFull = new AtomicLong();
+
+    public OutboundTarget(String name, RestTemplate restTemplate, int maxConcurrent, int failureThreshold,
+                          long openMillis) {
+        this.name = name;
+        this.restTemplate = restTemplate;
+        this.maxConcurrent = maxConcurrent;
+        this.failureThreshold = failureThreshold;
+        this.openMillis = openMillis;
+        this.permits = new Semaphore(maxConcurrent);
+    }
+
+    public String name() {
+        return name;
+    }
+
+    /**
+     * A RestTemplate on the shared pooled client with this target's read timeout.
+     * Calls made with it still have to go through {@link #call(Call)}.
+     */
+    public RestTemplate restTemplate() {
+        return restTemplate;
+    }
+
+    /**
+     * Whether the exception, or one of its causes, is an IO error, a timeout or a
+     * 5xx response. Connect and read timeouts surface as IO errors.
+     */
+    public static boolean isOutage(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof RestClientResponseException response) {
+                return response.getStatusCode().is5xxServerError();
+            }
+            if (cause instanceof IOException || cause instanceof TimeoutException
+                    || cause instanceof ResourceAccessException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public <T, E extends Exception> T call(Call<T, E> call) throws E {
+        return call(call, OutboundTarget::isOutage);
+    }
+
+    /**
+     * Like {@link #call(Call)}, for clients whose exceptions {@link #isOutage}
+     * cannot classify; {@code isOutage} says which ones count as failures.
+     */
+    public <T, E extends Exception> T call(Call<T, E> call, Predicate<Throwable> isOutage) throws E {
+        boolean trial = admit();
+        if (!permits.tryAcquire()) {
+            rejectedFull.incrementAndGet();
+            if (trial) {
+                giveBackTrial();
+            }
+            throw new OutboundUnavailableException(name + " already has " + maxConcurrent + " calls in flight");
+        }
+        try {
+            T result = call.run();
+            onSuccess();
+            return result;
+        } catch (Exception | Error e) {
+            if (isOutage.test(e)) {
+                onFailure(trial);
+            } else {
+                onIgnored(trial);
+            }
+            throw e;
+        } finally {
+            permits.release();
+        }
+    }
+
+    public synchronized State state() {
+        // Report an expired open period as half-open even before a call arrives
+        if (state == State.OPEN && System.currentTimeMillis() - openedAt >= openMillis) {
+            return State.HALF_OPEN;
+        }
+        return state;
+    }
+
+    public int inFlight() {
+        return maxConcurrent - permits.availablePermits();
+    }
+
+    public Map<String, Object> describe() {
+        Map<String, Object> details = new LinkedHashMap<>();
+        details.put("state", state());
+        details.put("inFlight", inFlight());
+        details.put("maxConcurrent", maxConcurrent);
+        synchronized (this) {
+            details.put("consecutiveFailures", consecutiveFailures);
+        }
+        details.put("successes", successes.get());
+        details.put("failures", failures.get());
+        details.put("ignored", ignored.get());
+        details.put("rejectedOpen", rejectedOpen.get());
+        details.put("rejectedFull", rejectedFull.get());
+        return details;
+    }
+
+    long count(String outcome) {
+        return switch (outcome) {
+            case "success" -> successes.get();
+            case "failure" -> failures.get();
+            case "ignored" -> ignored.get();
+            case "rejected_open" -> rejectedOpen.get();
+            default -> rejectedFull.get();
+        };
+    }
+
+    // Returns whether the caller holds the half-open trial slot
+    private synchronized boolean admit() {
+        if (state == State.CLOSED) {
+            return false;
+        }
+        if (state == State.OPEN && System.currentTimeMillis() - openedAt >= openMillis) {
+            state = State.HALF_OPEN;
+        }
+        if (state == State.HALF_OPEN && !trialInFlight) {
+            trialInFlight = true;
+            return true;
+        }
+        rejectedOpen.incrementAndGet();
+        throw new OutboundUnavailableException("Circuit for " + name + " is open");
+    }
+
+    private synchronized void giveBackTrial() {
+        trialInFlight = false;
+    }
+
+    private synchronized void onSuccess() {
+        successes.incrementAndGet();
+        consecutiveFailures = 0;
+        trialInFlight = false;
+        state = State.CLOSED;
+    }
+
+    // A trial that ended this way proved nothing, so the next call gets to try
+    private synchronized void onIgnored(boolean trial) {
+        ignored.incrementAndGet();
+        if (trial) {
+            trialInFlight = false;
+        }
+    }
+
+    private synchronized void onFailure(boolean trial) {
+        failures.incrementAndGet();
+        consecutiveFailures++;
+        if (trial) {
+            trialInFlight = false;
+        }
+        if (trial || consecutiveFailures >= failureThreshold) {
+            state = State.OPEN;
+            openedAt = System.currentTimeMillis();
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.gigconnect.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * One {@link OutboundTarget} per external service, all sharing the pooled
+ * outbound HttpClient. Each is configured by {@code outbound.targets.<name>.*},
+ * falling back to {@code outbound.defaults.*}, and reported as
+ * {@code outbound.*} metrics and on the "outbound" actuator endpoint.
+ */
+@Component
+public class OutboundTargets {
+
+    private static final List<String> OUTCOMES = List.of("success", "failure", "ignored", "rejected_open", "rejected_full");
+
+    @Autowired
+    private HttpClient outboundHttpClient;
+
+    @Autowired
+    private Environment environment;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Map<String, OutboundTarget> targets = new ConcurrentHashMap<>();
+
+    public OutboundTarget target(String name) {
+        return targets.computeIfAbsent(name, this::create);
+    }
+
+    public Collection<OutboundTarget> all() {
+        return targets.values();
+    }
+
+    private OutboundTarget create(String name) {
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(outboundHttpClient);
+        requestFactory.setReadTimeout(Duration.ofMillis(setting(name, "read-timeout-ms", 10000)));
+        OutboundTarget target = new OutboundTarget(name, new RestTemplate(requestFactory),
+                setting(name, "max-concurrent", 32),
+                setting(name, "failure-threshold", 5),
+                setting(name, "open-seconds", 30) * 1000L);
+
+        for (String outcome : OUTCOMES) {
+            FunctionCounter.builder("outbound.calls", target, t -> t.count(outcome))
+                    .tag("target", name).tag("outcome", outcome)
+                    .register(meterRegistry);
+        }
+        Gauge.builder("outbound.in.flight", target, OutboundTarget::inFlight)
+                .tag("target", name)
+                .register(meterRegistry);
+        Gauge.builder("outbound.circuit.state", target, t -> t.state().ordinal())
+                .description("0 closed, 1 open, 2 half-open")
+                .tag("target", name)
+                .register(meterRegistry);
+        return target;
+    }
+
+    private int setting(String target, String key, int defaultValue) {
+        Integer value = environment.getProperty("outbound.targets." + target + "." + key, Integer.class);
+        return value != null ? value : environment.getProperty("outbound.defaults." + key, Integer.class, defaultValue);
+    }
+}
@@ -37,6 +37,8 @@ public class PaymentService {
     private PaymentRepository paymentRepository;
     @Autowired
     private NotificationService notificationService;
+    @Autowired
+    private OutboundTargets outboundTargets;
 
     @Value("${razorpay.key.id}")
     private String razorpayKeyId;
@@ -62,7 +64,10 @@ public class PaymentService {
             orderRequest.put("currency", "INR");
             orderRequest.put("receipt", hireRequestId);
 
-            Order order = razorpayClient.orders.create(orderRequest);
+            // The SDK reports IO errors as RazorpayExceptions too; only request errors are the caller's fault
+            Order order = outboundTargets.target("razorpay").call(() -> razorpayClient.orders.create(orderRequest),
+                    e -> OutboundTarget.isOutage(e) || (e instanceof RazorpayException
+                            && (e.getMessage() == null || !e.getMessage().startsWith("BAD_REQUEST_ERROR"))));
             String orderId = order.get("id");
 
             hireRequest.setRazorpayOrderId(orderId);
@@ -0,0 +1,84 @@
+package com.example.gigconnect.service;
+
+import com.example.gigconnect.dto.PublicUserProfileDTO;
+import com.example.gigconnect.model.GigService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Bounded LRU read-through cache of public worker profiles keyed by user id.
+ * A profile is evicted when the worker's profile or reviews change and
+ * whenever one of their services is saved or deleted. A TTL bounds staleness
+ * from user writes that bypass the service layer. Callers get copies, so they
+ * may annotate the profiles they receive (scores, distances) freely.
+ */
+@Component
+public class ProfileCache extends AbstractMongoEventListener<GigService> {
+
+    private final BoundedTtlCache<String, PublicUserProfileDTO> cache;
+
+    public ProfileCache(@Value("${profile.cache.enabled:true}") boolean enabled,
+                        @Value("${profile.cache.max-entries:5000}") int maxEntries,
+                        @Value("${profile.cache.ttl-seconds:600}") long ttlSeconds,
+                        MeterRegistry meterRegistry) {
+        this.cache = new BoundedTtlCache<>("profile.cache", enabled, maxEntries, ttlSeconds * 1000, meterRegistry);
+    }
+
+    /**
+     * Returns the cached profile, or calls the loader and caches its result. A
+     * null result (the user is not a gig worker) is returned but not cached;
+     * loader exceptions propagate.
+     */
+    public PublicUserProfileDTO get(String userId, Supplier<PublicUserProfileDTO> loader) {
+        PublicUserProfileDTO profile = cache.get(userId, loader);
+        return profile == null ? null : profile.copy();
+    }
+
+    /**
+     * Bulk variant of {@link #get}: the loader is called once with all the ids
+     * that missed and returns the profiles it found, keyed by id. Ids without a
+     * profile are absent from the result.
+     */
+    public Map<String, PublicUserProfileDTO> getAll(Collection<String> userIds,
+                                                    Function<List<String>, Map<String, PublicUserProfileDTO>> loader) {
+        Map<String, PublicUserProfileDTO> profiles = new HashMap<>();
+        cache.getAll(userIds, loader).forEach((userId, profile) -> profiles.put(userId, profile.copy()));
+        return profiles;
+    }
+
+    public void evict(String userId) {
+        if (userId != null) {
+            cache.evict(userId);
+        }
+    }
+
+    public void clear() {
+        cache.clear();
+    }
+
+    public int size() {
+        return cache.size();
+    }
+
+    // Profiles list the worker's services, so creates, updates and background vector writes all count
+    @Override
+    public void onAfterSave(AfterSaveEvent<GigService> event) {
+        evict(event.getSource().getUserId());
+    }
+
+    @Scheduled(fixedDelayString = "${profile.cache.purge-interval-ms:60000}")
+    public void purgeExpired() {
+        cache.purgeExpired();
+    }
+}
@@ -1,15 +1,25 @@
 package com.example.gigconnect.service;
 
-import com.example.gigconnect.model.HireRequest;
 import com.example.gigconnect.model.User;
 import com.example.gigconnect.repository.HireRequestRepository;
 import com.example.gigconnect.repository.UserRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AccumulatorOperators;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.aggregation.ArrayOperators;
+import org.springframework.data.mongodb.core.aggregation.ComparisonOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -24,17 +34,52 @@ public class ReviewService {
 @Autowired
 private HireRequestRepository hireRequestRepository;
 
+@Autowired
+private MongoTemplate mongoTemplate;
+
+@Autowired
+private SearchResultCache searchResultCache;
+
+@Autowired
+private ProfileCache profileCache;
+
+/**
+ * Recomputes reviewCount and ratingSum on workers whose count does not match their
+ * reviews, e.g. reviews written before the aggregates existed. The field is
+ * compared rather than tested for existence, because saves write the default 0.
+ * Workers without reviews are left at the defaults of 0.
+ */
+@Async
+@EventListener(ApplicationReadyEvent.class)
+public void backfillRatingAggregates() {
+    try {
+        AggregationUpdate aggregates = AggregationUpdate.update()
+                .set("reviewCount").toValue(ArrayOperators.Size.lengthOfArray("reviews"))
+                .set("ratingSum").toValue(AccumulatorOperators.Sum.sumOf("reviews.rating"));
+        long updated = mongoTemplate.updateMulti(
+                new Query(Criteria.where("reviews.0").exists(true).andOperator(Criteria.expr(
+                        ComparisonOperators.valueOf("reviewCount").notEqualTo(ArrayOperators.Size.lengthOfArray("reviews"))))),
+                aggregates, User.class).getModifiedCount();
+        if (updated > 0) {
+            logger.info("Computed rating aggregates for {} workers", updated);
+        }
+    } catch (Exception e) {
+        logger.warn("Could not backfill rating aggregates: {}", e.getMessage());
+    }
+}
+
 public User addReview(String gigWorkerId, String clientEmail, String comment, int rating, String serviceId) {
     logger.debug("Adding review for gig worker ID: {} by client email: {}", gigWorkerId, clientEmail);
 
-    // Validate gig worker
-    User gigWorker = userRepository.findById(gigWorkerId)
-            .orElseThrow(() -> {
-                logger.error("Gig Worker not found: {}", gigWorkerId);
-                return new RuntimeException("Gig Worker not found");
-            });
-
-    if (!gigWorker.getRole().equals("GIG_WORKER")) {
+    // Validate gig worker; only the role is needed, not the reviews
+    Query workerQuery = new Query(Criteria.where("_id").is(gigWorkerId));
+    workerQuery.fields().include("role");
+    User gigWorker = mongoTemplate.findOne(workerQuery, User.class);
+    if (gigWorker == null) {
+        logger.error("Gig Worker not found: {}", gigWorkerId);
+        throw new RuntimeException("Gig Worker not found");
+    }
+    if (!"GIG_WORKER".equals(gigWorker.getRole())) {
         throw new RuntimeException("User is not a GIG_WORKER");
     }
 
@@ -45,15 +90,10 @@ public User addReview(String gigWorkerId, String clientEmail, String comment, in
     }
 
     // Validate hire request
-    List<HireRequest> hireRequests = hireRequestRepository.findByClientId(client.getId());
-    HireRequest hireRequest = hireRequests.stream()
-            .filter(req -> req.getGigWorkerId().equals(gigWorkerId) &&
-                          req.getServiceId().equals(serviceId) &&
-                          req.getStatus().equals("ACCEPTED") &&
-                          req.getWorkStatus() != null &&
-                          req.getWorkStatus().equals("COMPLETED"))
-            .findFirst()
-            .orElseThrow(() -> new RuntimeException("No completed hire request found for this service"));
+    if (!hireRequestRepository.existsByClientIdAndGigWorkerIdAndServiceIdAndStatusAndWorkStatus(
+            client.getId(), gigWorkerId, serviceId, "ACCEPTED", "COMPLETED")) {
+        throw new RuntimeException("No completed hire request found for this service");
+    }
 
     // Validate rating
     if (rating < 1 || rating > 5) {
@@ -68,14 +108,18 @@ public User addReview(String gigWorkerId, String clientEmail, String comment, in
     review.setRating(rating);
     review.setServiceId(serviceId);
 
-    List<User.Review> reviews = gigWorker.getReviews();
-    if (reviews == null) {
-        reviews = new ArrayList<>();
+    // One atomic update, so concurrent reviews neither overwrite each other nor skew the aggregates
+    Update update = new Update()
+            .push("reviews", review)
+            .inc("reviewCount", 1)
+            .inc("ratingSum", rating);
+    User updatedGigWorker = mongoTemplate.findAndModify(new Query(Criteria.where("_id").is(gigWorkerId)), update,
+            FindAndModifyOptions.options().returnNew(true), User.class);
+    if (updatedGigWorker == null) {
+        throw new RuntimeException("Gig Worker not found");
     }
-    reviews.add(review);
-    gigWorker.setReviews(reviews);
-
-    User updatedGigWorker = userRepository.save(gigWorker);
+    searchResultCache.evictWorker(gigWorkerId); // Cached pages show the old rating
+    profileCache.evict(gigWorkerId);
     logger.debug("Review added for gig worker ID: {}", gigWorkerId);
     return updatedGigWorker;
 } 
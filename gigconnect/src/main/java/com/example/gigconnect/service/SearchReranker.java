@@ -0,0 +1,84 @@
+package com.example.gigconnect.service;
+
+import com.example.gigconnect.dto.PublicUserProfileDTO;
+import com.example.gigconnect.search.Reranker;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Re-orders search and recommendation hits by a weighted mix of vector score,
+ * rating, review count, availability and distance (see {@link Reranker}), and
+ * records the final score on each hit so the weights can be tuned.
+ */
+@Component
+public class SearchReranker {
+
+    private final boolean enabled;
+    private final int maxCandidates;
+    private final boolean includeSignals;
+    private final Reranker reranker;
+
+    public SearchReranker(@Value("${search.rerank.enabled:true}") boolean enabled,
+                          @Value("${search.rerank.max-candidates:100}") int maxCandidates,
+                          @Value("${search.rerank.include-signals:true}") boolean includeSignals,
+                          @Value("${search.rerank.weight.vector:1.0}") double vectorWeight,
+                          @Value("${search.rerank.weight.rating:0.3}") double ratingWeight,
+                          @Value("${search.rerank.weight.reviews:0.15}") double reviewsWeight,
+                          @Value("${search.rerank.weight.open-to-work:0.1}") double openToWorkWeight,
+                          @Value("${search.rerank.weight.distance:0.3}") double distanceWeight,
+                          @Value("${search.rerank.review-saturation:50}") int reviewSaturation,
+                          @Value("${search.rerank.distance-scale-km:10}") double distanceScaleKm) {
+        this.enabled = enabled;
+        this.maxCandidates = Math.max(1, maxCandidates);
+        this.includeSignals = includeSignals;
+        this.reranker = new Reranker(new Reranker.Weights(vectorWeight, ratingWeight, reviewsWeight, openToWorkWeight,
+                distanceWeight, reviewSaturation, distanceScaleKm));
+    }
+
+    public int maxCandidates() {
+        return maxCandidates;
+    }
+
+    /**
+     * Returns the first {@code max-candidates} hits re-ordered by their combined
+     * score; hits beyond that keep their order after them. Returns the list as is
+     * when re-ranking is disabled.
+     */
+    public List<PublicUserProfileDTO> rerank(List<PublicUserProfileDTO> hits) {
+        if (!enabled || hits.isEmpty()) {
+            return hits;
+        }
+        int count = Math.min(hits.size(), maxCandidates);
+        double[] scores = new double[count];
+        double[] contributions = includeSignals ? new double[Reranker.SIGNALS.length] : null;
+        for (int i = 0; i < count; i++) {
+            PublicUserProfileDTO hit = hits.get(i);
+            scores[i] = reranker.score(
+                    hit.getScore() == null ? Double.NaN : hit.getScore(),
+                    hit.getAverageRating(),
+                    hit.getReviews() == null ? 0 : hit.getReviews().size(),
+                    hit.isOpenToWork(),
+                    hit.getDistanceKm() == null ? Double.NaN : hit.getDistanceKm(),
+                    contributions);
+            hit.setRankScore(scores[i]);
+            if (includeSignals) {
+                Map<String, Double> signals = new LinkedHashMap<>();
+                for (int s = 0; s < contributions.length; s++) {
+                    signals.put(Reranker.SIGNALS[s], contributions[s]);
+                }
+                hit.setRankSignals(signals);
+            }
+        }
+        List<PublicUserProfileDTO> reranked = new ArrayList<>(hits.size());
+        for (int i : Reranker.order(scores, count)) {
+            reranked.add(hits.get(i));
+        }
+        reranked.addAll(hits.subList(count, hits.size()));
+        return reranked;
+    }
+}
@@ -0,0 +1,191 @@
+package com.example.gigconnect.service;
+
+import com.example.gigconnect.dto.ProfilePageDTO;
+import com.example.gigconnect.model.GigService;
+import com.example.gigconnect.model.User;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.BiPredicate;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Bounded LRU cache of keyword and semantic search pages keyed by the normalized
+ * query. Writes evict exactly the pages they can change: every page showing the
+ * affected worker (they may drop out or look different), plus every page whose
+ * filters and keyword the changed worker or service now matches (they may move
+ * in). A TTL bounds staleness from writes that bypass the service layer.
+ */
+@Component
+public class SearchResultCache extends AbstractMongoEventListener<GigService> {
+
+    public static final String KEYWORD = "keyword";
+    public static final String SEMANTIC = "semantic";
+
+    // Semantic search caches its whole re-ranked ranking under page size 0 and no cursor
+    public record Key(String kind, String keyword, String city, String state, List<String> skills, Boolean openToWork,
+                      int pageSize, String cursor) {
+    }
+
+    /**
+     * A loaded page and whether it may be cached; degraded pages (e.g. ranked by
+     * the fallback embedder) are served but not kept.
+     */
+    public record Loaded(ProfilePageDTO page, boolean cacheable) {
+    }
+
+    private record Entry(ProfilePageDTO page, Set<String> workerIds, boolean cacheable) {
+    }
+
+    private final BoundedTtlCache<Key, Entry> cache;
+
+    public SearchResultCache(@Value("${search.cache.enabled:true}") boolean enabled,
+                             @Value("${search.cache.max-entries:1000}") int maxEntries,
+                             @Value("${search.cache.ttl-seconds:300}") long ttlSeconds,
+                             MeterRegistry meterRegistry) {
+        this.cache = new BoundedTtlCache<>("search.cache", enabled, maxEntries, ttlSeconds * 1000, meterRegistry);
+    }
+
+    public static Key key(String kind, String keyword, String city, String state, List<String> skills,
+                          Boolean openToWork, int pageSize, String cursor) {
+        // Semantic queries are embedded from normalized text; keyword queries match case-insensitively
+        String normalizedKeyword = keyword == null ? "" : SEMANTIC.equals(kind)
+                ? EmbeddingCache.normalize(keyword) : keyword.toLowerCase(Locale.ROOT);
+        List<String> skillSet = skills == null ? List.of() : List.copyOf(new TreeSet<>(skills));
+        return new Key(kind, normalizedKeyword, blankToNull(city), blankToNull(state), skillSet, openToWork, pageSize,
+                blankToNull(cursor));
+    }
+
+    /**
+     * Returns a copy of the cached page, or calls the loader and caches its result.
+     * A null result (e.g. the vectorizer failed) is returned but not cached.
+     */
+    public ProfilePageDTO get(Key key, Supplier<ProfilePageDTO> loader) {
+        return load(key, () -> {
+            ProfilePageDTO page = loader.get();
+            return new Loaded(page, page != null);
+        });
+    }
+
+    /**
+     * Like {@link #get}, but the loader decides whether its page is cached.
+     */
+    public ProfilePageDTO load(Key key, Supplier<Loaded> loader) {
+        Entry entry = cache.get(key, () -> {
+            Loaded loaded = loader.get();
+            if (loaded.page() == null) {
+                return null;
+            }
+            Set<String> workerIds = new HashSet<>();
+            loaded.page().getItems().forEach(profile -> workerIds.add(profile.getId()));
+            return new Entry(loaded.page(), workerIds, loaded.cacheable());
+        }, Entry::cacheable);
+        // Callers re-rank and annotate their pages, so they never get the cached instances
+        return entry == null ? null : entry.page().copy();
+    }
+
+    /**
+     * Whether an unexpired page is cached for the key, without counting a request;
+     * lets callers skip work that only a miss needs.
+     */
+    public boolean contains(Key key) {
+        return cache.contains(key);
+    }
+
+    /**
+     * For changes that only affect how a worker is shown (e.g. a new review).
+     */
+    public void evictWorker(String workerId) {
+        evict((key, entry) -> entry.workerIds().contains(workerId));
+    }
+
+    /**
+     * For profile changes: the worker may leave pages they are on and enter pages
+     * whose filters their new city, state, skills or availability now match.
+     */
+    public void evictWorker(User worker, List<GigService> services) {
+        evict((key, entry) -> entry.workerIds().contains(worker.getId())
+                || (matchesFilters(key, worker.getCity(), worker.getState(), worker.getSkills(), worker.isOpenToWork())
+                && services.stream().anyMatch(service -> matchesQuery(key, service))));
+    }
+
+    public void evictService(GigService service) {
+        evict((key, entry) -> entry.workerIds().contains(service.getUserId())
+                || (matchesFilters(key, service.getWorkerCity(), service.getWorkerState(), service.getWorkerSkills(),
+                service.isWorkerOpenToWork()) && matchesQuery(key, service)));
+    }
+
+    public void clear() {
+        cache.clear();
+    }
+
+    public int size() {
+        return cache.size();
+    }
+
+    // Covers repository saves as well as the vectors written by the outbox and the backfill job
+    @Override
+    public void onAfterSave(AfterSaveEvent<GigService> event) {
+        evictService(event.getSource());
+    }
+
+    @Scheduled(fixedDelayString = "${search.cache.purge-interval-ms:60000}")
+    public void purgeExpired() {
+        cache.purgeExpired();
+    }
+
+    private void evict(BiPredicate<Key, Entry> matcher) {
+        cache.evictIf(matcher);
+    }
+
+    // Semantic search can surface any service with a vector; keyword search needs the text to match
+    private static boolean matchesQuery(Key key, GigService service) {
+        if (SEMANTIC.equals(key.kind()) || key.keyword().isBlank()) {
+            return true;
+        }
+        return containsIgnoreCase(service.getTitle(), key.keyword()) || containsIgnoreCase(service.getCategory(), key.keyword());
+    }
+
+    // Errs towards matching: keyword search treats city and state as regexes, semantic search as exact values
+    private static boolean matchesFilters(Key key, String city, String state, String[] skills, boolean openToWork) {
+        return matchesPattern(key.city(), city)
+                && matchesPattern(key.state(), state)
+                && (key.skills().isEmpty() || (skills != null && Arrays.stream(skills)
+                .anyMatch(skill -> key.skills().stream().anyMatch(skill::equalsIgnoreCase))))
+                && (key.openToWork() == null || key.openToWork() == openToWork);
+    }
+
+    private static boolean matchesPattern(String filter, String value) {
+        if (filter == null) {
+            return true;
+        }
+        if (value == null) {
+            return false;
+        }
+        try {
+            return Pattern.compile(filter.trim(), Pattern.CASE_INSENSITIVE).matcher(value).find();
+        } catch (PatternSyntaxException e) {
+            return true;
+        }
+    }
+
+    private static boolean containsIgnoreCase(String text, String keyword) {
+        return text != null && text.toLowerCase(Locale.ROOT).contains(keyword);
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isEmpty() ? null : value;
+    }
+}
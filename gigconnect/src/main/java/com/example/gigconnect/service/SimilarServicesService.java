@@ -0,0 +1,254 @@
+package com.example.gigconnect.service;
+
+import com.example.gigconnect.model.GigService;
+import com.example.gigconnect.model.SimilarServices;
+import com.example.gigconnect.repository.GigServiceRepository;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Maintains the materialized "similar services" lists behind recommendations.
+ * Lists are recomputed by a scheduled worker from a stale flag: a rebuild flags
+ * every service, and a vector change flags the service itself plus the services
+ * that listed it. When a recomputed service's vector changed, its new neighbours
+ * are flagged too, since it may now belong in their lists.
+ */
+@Service
+public class SimilarServicesService extends AbstractMongoEventListener<GigService> {
+
+    private static final Logger logger = LoggerFactory.getLogger(SimilarServicesService.class);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private GigServiceRepository gigServiceRepository;
+
+    @Autowired
+    @Qualifier("similarServicesExecutor")
+    private Executor similarServicesExecutor;
+
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private TaskExecutor taskExecutor;
+
+    @Value("${recommendations.similar.k:15}")
+    private int k;
+
+    @Value("${recommendations.similar.batch-size:50}")
+    private int batchSize;
+
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+    /**
+     * Flags every service for recomputation in the background. Returns false if a
+     * rebuild is already running.
+     */
+    public boolean startRebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return false;
+        }
+        try {
+            taskExecutor.execute(this::flagAll);
+        } catch (TaskRejectedException e) {
+            rebuilding.set(false);
+            throw e;
+        }
+        return true;
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildIfMissing() {
+        try {
+            if (mongoTemplate.count(new Query(), SimilarServices.class) == 0
+                    && mongoTemplate.exists(new Query(Criteria.where("serviceVector").ne(null)), GigService.class)) {
+                logger.info("No similar-service lists yet, building them");
+                startRebuild();
+            }
+        } catch (Exception e) {
+            logger.warn("Could not check the similar-service lists: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Queues the service's list for the background worker, for services it has not
+     * reached yet. An already queued list keeps its revision, so repeated calls do
+     * not keep invalidating a computation in progress.
+     */
+    public void requestCompute(String serviceId) {
+        if (!gigServiceRepository.existsById(serviceId)) {
+            throw new RuntimeException("Target service not found: " + serviceId);
+        }
+        Update update = new Update().setOnInsert("stale", true).setOnInsert("revision", 1L);
+        mongoTemplate.upsert(new Query(Criteria.where("_id").is(serviceId)), update, SimilarServices.class);
+    }
+
+    @Scheduled(fixedDelayString = "${recommendations.similar.refresh-interval-ms:5000}")
+    public void refreshStale() {
+        List<SimilarServices> tasks;
+        try {
+            tasks = mongoTemplate.find(new Query(Criteria.where("stale").is(true)).limit(batchSize), SimilarServices.class);
+        } catch (Exception e) {
+            logger.warn("Could not poll stale similar-service lists: {}", e.getMessage());
+            return;
+        }
+        if (tasks.isEmpty()) {
+            return;
+        }
+
+        List<String> ids = tasks.stream().map(SimilarServices::getId).toList();
+        Map<String, GigService> services = mongoTemplate.find(new Query(Criteria.where("_id").in(ids)), GigService.class)
+                .stream()
+                .collect(Collectors.toMap(GigService::getId, Function.identity()));
+        List<CompletableFuture<Void>> work = new ArrayList<>(tasks.size());
+        for (SimilarServices task : tasks) {
+            GigService service = services.get(task.getId());
+            if (service == null) {
+                // Deleted since it was flagged
+                mongoTemplate.remove(new Query(Criteria.where("_id").is(task.getId()).and("revision").is(task.getRevision())),
+                        SimilarServices.class);
+                continue;
+            }
+            work.add(CompletableFuture.runAsync(() -> recompute(task, service), similarServicesExecutor)
+                    .exceptionally(error -> {
+                        logger.error("Could not compute similar services for {}: {}", task.getId(), error.getMessage());
+                        return null;
+                    }));
+        }
+        CompletableFuture.allOf(work.toArray(CompletableFuture[]::new)).join();
+    }
+
+    @Override
+    public void onAfterSave(AfterSaveEvent<GigService> event) {
+        GigService service = event.getSource();
+        if (service.getServiceVector() == null) {
+            return;
+        }
+        try {
+            Query current = new Query(Criteria.where("_id").is(service.getId()));
+            current.fields().include("vectorHash");
+            SimilarServices existing = mongoTemplate.findOne(current, SimilarServices.class);
+            // Most saves do not touch the vector; only a new vector changes anybody's neighbours
+            if (existing == null || !Objects.equals(existing.getVectorHash(), vectorHash(service))) {
+                markStale(service.getId(), service.getUserId());
+                flagListsContaining(service.getId());
+            }
+        } catch (Exception e) {
+            logger.warn("Could not flag similar services of {}: {}", service.getId(), e.getMessage());
+        }
+    }
+
+    @Override
+    public void onAfterDelete(AfterDeleteEvent<GigService> event) {
+        Object id = event.getSource().get("_id");
+        if (id == null || id instanceof Document) {
+            return;
+        }
+        try {
+            mongoTemplate.remove(new Query(Criteria.where("_id").is(id.toString())), SimilarServices.class);
+            flagListsContaining(id.toString());
+        } catch (Exception e) {
+            logger.warn("Could not flag lists containing deleted service {}: {}", id, e.getMessage());
+        }
+    }
+
+    private void recompute(SimilarServices task, GigService service) {
+        float[] vector = service.getServiceVector();
+        List<SimilarServices.Neighbor> neighbors = vector == null || vector.length == 0
+                ? List.of()
+                : gigServiceRepository.findNearestServices(vector, service.getEmbeddingModel(), service.getId(), k);
+        Update update = new Update()
+                .set("userId", service.getUserId())
+                .set("neighbors", neighbors)
+                .set("vectorHash", vectorHash(service))
+                .set("stale", false)
+                .set("computedAt", LocalDateTime.now());
+        // Matching on the revision keeps a flag raised while we computed
+        Query unchanged = new Query(Criteria.where("_id").is(task.getId()).and("revision").is(task.getRevision()));
+        if (mongoTemplate.updateFirst(unchanged, update, SimilarServices.class).getMatchedCount() == 0) {
+            return;
+        }
+        if (vector != null && !Objects.equals(task.getVectorHash(), vectorHash(service))) {
+            for (SimilarServices.Neighbor neighbor : neighbors) {
+                markStale(neighbor.getServiceId(), neighbor.getUserId());
+            }
+        }
+    }
+
+    private void markStale(String serviceId, String userId) {
+        Update update = new Update().set("stale", true).set("userId", userId).inc("revision", 1);
+        mongoTemplate.upsert(new Query(Criteria.where("_id").is(serviceId)), update, SimilarServices.class);
+    }
+
+    private void flagListsContaining(String serviceId) {
+        mongoTemplate.updateMulti(new Query(Criteria.where("neighbors.serviceId").is(serviceId)),
+                new Update().set("stale", true).inc("revision", 1), SimilarServices.class);
+    }
+
+    private void flagAll() {
+        logger.info("Flagging all services for similar-service recomputation...");
+        long flagged = 0;
+        Query query = new Query();
+        query.fields().include("userId");
+        try (Stream<GigService> services = mongoTemplate.stream(query, GigService.class)) {
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, SimilarServices.class);
+            int pending = 0;
+            for (GigService service : (Iterable<GigService>) services::iterator) {
+                bulk.upsert(new Query(Criteria.where("_id").is(service.getId())),
+                        new Update().set("stale", true).set("userId", service.getUserId()).inc("revision", 1));
+                flagged++;
+                if (++pending == 500) {
+                    bulk.execute();
+                    bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, SimilarServices.class);
+                    pending = 0;
+                }
+            }
+            if (pending > 0) {
+                bulk.execute();
+            }
+            logger.info("Flagged {} services; their lists are computed in the background", flagged);
+        } catch (Exception e) {
+            logger.error("Similar-service rebuild stopped after {} services: {}", flagged, e.getMessage());
+        } finally {
+            rebuilding.set(false);
+        }
+    }
+
+    // Re-embedding the same text with another model also changes the neighbours
+    private static String vectorHash(GigService service) {
+        return service.getEmbeddingModel() == null ? service.getContentHash()
+                : service.getContentHash() + "|" + service.getEmbeddingModel();
+    }
+}
@@ -1,16 +1,34 @@
 package com.example.gigconnect.service;
 
 import com.example.gigconnect.config.JwtUtil;
+import com.example.gigconnect.dto.FacetedSearchDTO;
+import com.example.gigconnect.dto.ProfilePageDTO;
 import com.example.gigconnect.dto.PublicUserProfileDTO;
+import com.example.gigconnect.dto.SemanticQueryDTO;
 import com.example.gigconnect.dto.UserProfileUpdateDTO;
 import com.example.gigconnect.model.GigService;
 import com.example.gigconnect.model.User;
 import com.example.gigconnect.repository.GigServiceRepository;
+import com.example.gigconnect.repository.SimilarServicesRepository;
 import com.example.gigconnect.repository.UserRepository;
+import com.example.gigconnect.repository.WorkerLocationIndex;
+import com.example.gigconnect.search.GeoGrid;
+import com.example.gigconnect.search.RankFusion;
+import com.example.gigconnect.search.SearchCursor;
 import jakarta.validation.Valid;
+import org.bson.Document;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -18,14 +36,20 @@ import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.validation.annotation.Validated;
-import org.springframework.web.client.RestTemplate;
 
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Service
@@ -50,8 +74,59 @@ public class UserService {
     private AuthenticationManager authenticationManager; 
 
     @Autowired
-private RestTemplate restTemplate; // <-- ADD THIS
-private final String vectorizerUrl = "http://localhost:5001/vectorize";
+    private SimilarServicesRepository similarServicesRepository;
+
+    @Autowired
+    private SimilarServicesService similarServicesService;
+
+    @Autowired
+    private EmbeddingService embeddingService;
+
+    @Autowired
+    private SearchResultCache searchResultCache;
+
+    @Autowired
+    private ProfileCache profileCache;
+
+    @Autowired
+    private SearchReranker searchReranker;
+
+    @Autowired
+    private WorkerFieldsService workerFieldsService;
+
+    @Autowired(required = false)
+    private WorkerLocationIndex workerLocationIndex;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    @Qualifier("searchExecutor")
+    private Executor searchExecutor;
+
+    @Value("${search.hybrid.rrf-k:60}")
+    private int rrfK;
+
+    @Value("${search.page-size.default:20}")
+    private int defaultPageSize;
+
+    @Value("${search.page-size.max:100}")
+    private int maxPageSize;
+
+    @Value("${search.facets.max-values:20}")
+    private int maxFacetValues;
+
+    @Value("${search.geo.max-radius-km:500}")
+    private double maxRadiusKm;
+
+    @Value("${profile.bulk.max-ids:100}")
+    private int maxBulkProfiles;
+
+    @Value("${search.semantic.batch.max-queries:20}")
+    private int maxBatchQueries;
 
     public User registerUser(@Valid User user) {
         logger.debug("Registering user with email: {}", user.getEmail());
@@ -93,26 +168,42 @@ private final String vectorizerUrl = "http://localhost:5001/vectorize";
             logger.error("User not found with email: {}", email);
             throw new RuntimeException("User not found");
         } 
-        if (updatedUser.getOpenToWork() != null) existingUser.setOpenToWork(updatedUser.getOpenToWork());
-        if (updatedUser.getName() != null) existingUser.setName(updatedUser.getName());
-        if (updatedUser.getCity() != null) existingUser.setCity(updatedUser.getCity());
-        if (updatedUser.getState() != null) existingUser.setState(updatedUser.getState());
-        if (updatedUser.getLocation() != null) existingUser.setLocation(updatedUser.getLocation());
-        if (updatedUser.getSkills() != null && existingUser.getRole().equals("GIG_WORKER")) {
-            existingUser.setSkills(updatedUser.getSkills());
+        // Only the edited fields are written: a whole-document save would undo reviews added meanwhile
+        boolean worker = "GIG_WORKER".equals(existingUser.getRole());
+        Update update = new Update();
+        if (updatedUser.getOpenToWork() != null) update.set("openToWork", updatedUser.getOpenToWork());
+        if (updatedUser.getName() != null) update.set("name", updatedUser.getName());
+        if (updatedUser.getCity() != null) update.set("city", updatedUser.getCity());
+        if (updatedUser.getState() != null) update.set("state", updatedUser.getState());
+        if (updatedUser.getLocation() != null) update.set("location", updatedUser.getLocation());
+        if (updatedUser.getSkills() != null && worker) update.set("skills", updatedUser.getSkills());
+        if (updatedUser.getPortfolio() != null && worker) update.set("portfolio", updatedUser.getPortfolio());
+        if (updatedUser.getMediaUrls() != null && worker) update.set("mediaUrls", updatedUser.getMediaUrls());
+        if (update.getUpdateObject().isEmpty()) {
+            return existingUser;
         }
-        if (updatedUser.getPortfolio() != null && existingUser.getRole().equals("GIG_WORKER")) {
-            existingUser.setPortfolio(updatedUser.getPortfolio());
+        User updated = mongoTemplate.findAndModify(new Query(Criteria.where("_id").is(existingUser.getId())), update,
+                FindAndModifyOptions.options().returnNew(true), User.class);
+        if (updated == null) {
+            throw new RuntimeException("User not found");
         }
-        if (updatedUser.getMediaUrls() != null && existingUser.getRole().equals("GIG_WORKER")) {
-            existingUser.setMediaUrls(updatedUser.getMediaUrls());
+        // Updates bypass the mapping events, so tell the in-memory indexes ourselves
+        eventPublisher.publishEvent(new AfterSaveEvent<>(updated, new Document("_id", updated.getId()), "users"));
+        if (worker) {
+            // Services carry a copy of the location, skills and availability for vector search filters
+            workerFieldsService.propagate(updated);
+            searchResultCache.evictWorker(updated, gigServiceRepository.findByUserId(updated.getId()));
+            profileCache.evict(updated.getId());
         }
-        User updated = userRepository.save(existingUser);
         logger.debug("Profile updated for email: {}", email);
         return updated;
     }
 
   public PublicUserProfileDTO getPublicProfile(String userId) {
+    return profileCache.get(userId, () -> loadPublicProfile(userId));
+}
+
+private PublicUserProfileDTO loadPublicProfile(String userId) {
     logger.debug("Fetching public profile for userId: {}", userId);
     User user = userRepository.findById(userId)
             .orElseThrow(() -> {
@@ -123,6 +214,60 @@ private final String vectorizerUrl = "http://localhost:5001/vectorize";
         logger.warn("Profile requested for non-GIG_WORKER user: {}", userId);
         return null; // Or throw a custom exception if you want to restrict non-gig workers
     }
+    PublicUserProfileDTO profile = toPublicProfile(user, gigServiceRepository.findByUserId(userId));
+    logger.debug("Public profile retrieved for userId: {}", userId);
+    return profile;
+}
+
+/**
+ * Profiles of many workers in input order, e.g. for a page of cards. Misses in
+ * the profile cache are loaded with one users query and one services query.
+ * Unknown ids and users who are not gig workers are left out; duplicates are
+ * returned once.
+ */
+public List<PublicUserProfileDTO> getPublicProfiles(Collection<String> userIds) {
+    Set<String> ids = new LinkedHashSet<>();
+    if (userIds != null) {
+        userIds.stream().filter(id -> id != null && !id.isBlank()).map(String::trim).forEach(ids::add);
+    }
+    if (ids.size() > maxBulkProfiles) {
+        throw new IllegalArgumentException("At most " + maxBulkProfiles + " profiles can be fetched at once");
+    }
+    if (ids.isEmpty()) {
+        return new ArrayList<>();
+    }
+    logger.debug("Fetching {} public profiles", ids.size());
+    Map<String, PublicUserProfileDTO> profiles = profileCache.getAll(ids, this::loadPublicProfiles);
+    return ids.stream().map(profiles::get).filter(Objects::nonNull).collect(Collectors.toList());
+}
+
+private Map<String, PublicUserProfileDTO> loadPublicProfiles(List<String> userIds) {
+    Map<String, List<GigService>> servicesByWorker = new HashMap<>();
+    for (GigService service : gigServiceRepository.findByUserIdIn(userIds)) {
+        servicesByWorker.computeIfAbsent(service.getUserId(), id -> new ArrayList<>()).add(service);
+    }
+    Map<String, PublicUserProfileDTO> profiles = new HashMap<>();
+    for (User user : userRepository.findAllById(userIds)) {
+        if ("GIG_WORKER".equals(user.getRole())) {
+            profiles.put(user.getId(), toPublicProfile(user, servicesByWorker.getOrDefault(user.getId(), new ArrayList<>())));
+        }
+    }
+    return profiles;
+}
+
+// The card fields only; vectors and the worker fields copied for search filters stay internal
+private static GigService publicService(GigService service) {
+    GigService copy = new GigService();
+    copy.setId(service.getId());
+    copy.setTitle(service.getTitle());
+    copy.setDescription(service.getDescription());
+    copy.setPrice(service.getPrice());
+    copy.setCategory(service.getCategory());
+    copy.setUserId(service.getUserId());
+    return copy;
+}
+
+private static PublicUserProfileDTO toPublicProfile(User user, List<GigService> services) {
     PublicUserProfileDTO profile = new PublicUserProfileDTO();
     profile.setId(user.getId());
     profile.setOpenToWork(user.isOpenToWork());
@@ -132,16 +277,14 @@ private final String vectorizerUrl = "http://localhost:5001/vectorize";
     profile.setSkills(user.getSkills());
     profile.setPortfolio(user.getPortfolio());
     profile.setMediaUrls(user.getMediaUrls());
-
-    List<GigService> services = gigServiceRepository.findByUserId(userId);
-    profile.setServices(services);
+    profile.setServices(services == null ? null : services.stream().map(UserService::publicService).toList());
 
     List<User.Review> reviews = user.getReviews();
     if (reviews != null && !reviews.isEmpty()) {
-        double averageRating = reviews.stream()
-                .mapToInt(User.Review::getRating)
-                .average()
-                .orElse(0.0);
+        // Read from the stored aggregates; workers not yet backfilled fall back to the reviews
+        double averageRating = user.getReviewCount() > 0
+                ? (double) user.getRatingSum() / user.getReviewCount()
+                : reviews.stream().mapToInt(User.Review::getRating).average().orElse(0.0);
         profile.setAverageRating(averageRating);
         profile.setReviews(reviews.stream().map(review -> {
             PublicUserProfileDTO.ReviewDTO dto = new PublicUserProfileDTO.ReviewDTO();
@@ -155,8 +298,6 @@ private final String vectorizerUrl = "http://localhost:5001/vectorize";
         profile.setAverageRating(0.0);
         profile.setReviews(null);
     }
-
-    logger.debug("Public profile retrieved for userId: {}", userId);
     return profile;
 }
     // UserService.java
@@ -169,108 +310,341 @@ public User getUserByEmail(String email) {
     }
     return user;
 } 
-public List<PublicUserProfileDTO> searchGigWorkers(String keyword, String city, String state, List<String> skills) {
+public ProfilePageDTO searchGigWorkers(String keyword, String city, String state, List<String> skills,
+                                       Boolean openToWork, Integer pageSize, String cursor) {
     logger.debug("Searching gig workers with keyword: {}, city: {}, state: {}, skills: {}", keyword, city, state,
             skills);
 
-    List<User> gigWorkers = gigServiceRepository.searchGigWorkers(keyword, city, state, skills);
-
-    // Get unique gig worker IDs from the results
-    Set<String> matchingGigWorkerIds = gigWorkers.stream()
-            .map(User::getId)
-            .collect(Collectors.toSet());
-
-    List<PublicUserProfileDTO> profiles = matchingGigWorkerIds.stream()
-            .map(this::getPublicProfile)
-            .collect(Collectors.toList());
-
-    logger.debug("Found {} gig workers matching search criteria", profiles.size());
-    return profiles;
+    // Profiles are assembled by the search pipeline itself, one per worker; one extra tells us if there is a next page
+    int size = pageSize(pageSize);
+    SearchCursor after = SearchCursor.decode(cursor);
+    return searchResultCache.get(SearchResultCache.key(SearchResultCache.KEYWORD, keyword, city, state, skills,
+            openToWork, size, cursor), () -> {
+        List<PublicUserProfileDTO> profiles = gigServiceRepository.searchGigWorkers(keyword, city, state, skills,
+                openToWork, after, size + 1);
+        logger.debug("Found {} gig workers matching search criteria", profiles.size());
+        return toPage(profiles, size);
+    });
 } 
 
+/**
+ * Keyword search that also returns, per facet, how many matching workers have
+ * each value, for building filter sidebars. A blank keyword matches every worker.
+ */
+public FacetedSearchDTO searchGigWorkersFaceted(String keyword, String city, String state, List<String> skills,
+                                                Boolean openToWork, Integer pageSize, String cursor) {
+    logger.debug("Faceted search with keyword: {}, city: {}, state: {}, skills: {}", keyword, city, state, skills);
+    int size = pageSize(pageSize);
+    FacetedSearchDTO result = gigServiceRepository.searchGigWorkersFaceted(keyword, city, state, skills, openToWork,
+            SearchCursor.decode(cursor), size + 1, maxFacetValues);
+    ProfilePageDTO page = toPage(result.getItems(), size);
+    result.setItems(page.getItems());
+    result.setNextCursor(page.getNextCursor());
+    return result;
+}
+
 // --- ADD THIS ENTIRE NEW METHOD ---
-public List<PublicUserProfileDTO> searchGigWorkersSemantic(String keyword, String city, String state, List<String> skills) {
+public ProfilePageDTO searchGigWorkersSemantic(String keyword, String city, String state, List<String> skills,
+                                               Boolean openToWork, Integer pageSize, String cursor) {
     logger.debug("Semantic searching for: {}", keyword);
+    int size = pageSize(pageSize);
+    SearchCursor after = SearchCursor.decode(cursor);
+    return semanticPage(() -> embeddingService.embed(keyword), keyword, city, state, skills, openToWork, size, cursor,
+            after);
+}
+
+/**
+ * Runs several semantic searches at once, e.g. one per home-screen tile. The
+ * keywords without a cached ranking are embedded together, so the vectorizer
+ * client sends them in one batch call, then the searches run concurrently.
+ * Results are in query order; a query whose search fails gets an empty page.
+ */
+public List<ProfilePageDTO> searchGigWorkersSemanticBatch(List<SemanticQueryDTO> queries) {
+    if (queries == null || queries.isEmpty() || queries.size() > maxBatchQueries) {
+        throw new IllegalArgumentException("A batch needs between 1 and " + maxBatchQueries + " queries");
+    }
+    List<SearchCursor> cursors = new ArrayList<>(queries.size());
+    for (SemanticQueryDTO query : queries) {
+        if (query.getKeyword() == null || query.getKeyword().isBlank()) {
+            throw new IllegalArgumentException("Every query needs a keyword");
+        }
+        cursors.add(SearchCursor.decode(query.getCursor())); // A malformed cursor rejects the whole batch
+    }
+    logger.debug("Semantic batch search for {} queries", queries.size());
+
+    // Queue the embeddings of the cache misses before waiting on any, so they share vectorizer calls
+    Map<String, CompletableFuture<EmbeddingService.Embedding>> embeddings = new HashMap<>();
+    for (SemanticQueryDTO query : queries) {
+        if (!searchResultCache.contains(semanticKey(query.getKeyword(), query.getCity(), query.getState(),
+                query.getSkills(), query.getOpenToWork()))) {
+            embeddings.computeIfAbsent(query.getKeyword(), embeddingService::embedAsync);
+        }
+    }
 
-    // 1. Get the query vector
-    List<Double> queryVector = getVectorForText(keyword);
-    if (queryVector == null) {
-        logger.warn("Could not generate vector for keyword: {}", keyword);
-        return new ArrayList<>(); // Return empty if vectorizing fails
+    List<CompletableFuture<ProfilePageDTO>> pages = new ArrayList<>(queries.size());
+    for (int i = 0; i < queries.size(); i++) {
+        SemanticQueryDTO query = queries.get(i);
+        SearchCursor after = cursors.get(i);
+        CompletableFuture<EmbeddingService.Embedding> queued = embeddings.get(query.getKeyword());
+        // A hit evicted since the check is embedded on its own
+        Supplier<EmbeddingService.Embedding> embedding = queued != null ? () -> queued.exceptionally(e -> null).join()
+                : () -> embeddingService.embed(query.getKeyword());
+        pages.add(CompletableFuture.supplyAsync(() -> semanticPage(embedding,
+                query.getKeyword(), query.getCity(), query.getState(), query.getSkills(), query.getOpenToWork(),
+                pageSize(query.getPageSize()), query.getCursor(), after), searchExecutor)
+                .exceptionally(e -> {
+                    logger.error("Semantic search for keyword {} failed in a batch: {}", query.getKeyword(), e.getMessage());
+                    return new ProfilePageDTO(new ArrayList<>(), null);
+                }));
     }
+    return pages.stream().map(CompletableFuture::join).collect(Collectors.toList());
+}
+
+private ProfilePageDTO semanticPage(Supplier<EmbeddingService.Embedding> embedder, String keyword, String city,
+                                    String state, List<String> skills, Boolean openToWork, int size, String cursor,
+                                    SearchCursor after) {
+    // The whole re-ranked top k is cached once (page size 0, no cursor) and every page is cut from it,
+    // so pages and cursors follow the final order rather than the vector order
+    ProfilePageDTO ranking = searchResultCache.load(semanticKey(keyword, city, state, skills, openToWork), () -> {
+        // 1. Get the query vector
+        EmbeddingService.Embedding query = embedder.get();
+        if (query == null) {
+            logger.warn("Could not generate vector for keyword: {}", keyword);
+            return new SearchResultCache.Loaded(null, false); // The next request tries the vectorizer again
+        }
+
+        // 2. Search; the pipeline returns one profile per worker, best match first
+        List<PublicUserProfileDTO> profiles = gigServiceRepository.searchGigWorkersByVector(query.vector(), query.model(),
+                query.fallback(), city, state, skills, openToWork, null, searchReranker.maxCandidates());
+        logger.debug("Found {} gig workers matching semantic search", profiles.size());
+        // A fallback ranking is not cached, so search returns to the primary model as soon as it recovers
+        return new SearchResultCache.Loaded(new ProfilePageDTO(searchReranker.rerank(profiles), null), !query.fallback());
+    });
+    if (ranking == null) {
+        return new ProfilePageDTO(new ArrayList<>(), null); // Empty if vectorizing fails
+    }
+    List<PublicUserProfileDTO> ranked = ranking.getItems();
+    int from = after == null ? 0 : positionAfter(ranked, after);
+    return toRankedPage(ranked.subList(from, Math.min(ranked.size(), from + size + 1)), size);
+}
+
+// Key of a semantic query's cached ranking, shared by all its pages
+private static SearchResultCache.Key semanticKey(String keyword, String city, String state, List<String> skills,
+                                                 Boolean openToWork) {
+    return SearchResultCache.key(SearchResultCache.SEMANTIC, keyword, city, state, skills, openToWork, 0, null);
+}
 
-    // 2. Call the NEW repository method
-    List<User> gigWorkers = gigServiceRepository.searchGigWorkersByVector(queryVector, city, state, skills);
+// Index of the first hit after the cursor in a re-ranked list; by score if the cursor's worker has left it
+private static int positionAfter(List<PublicUserProfileDTO> ranked, SearchCursor after) {
+    for (int i = 0; i < ranked.size(); i++) {
+        if (ranked.get(i).getId().equals(after.id())) {
+            return i + 1;
+        }
+    }
+    for (int i = 0; i < ranked.size(); i++) {
+        Double score = rankKey(ranked.get(i));
+        if (after.score() == null || score == null || score < after.score()) {
+            return i;
+        }
+    }
+    return ranked.size();
+}
 
-    // 3. Your existing DTO conversion logic
-    Set<String> matchingGigWorkerIds = gigWorkers.stream()
-            .map(User::getId)
-            .collect(Collectors.toSet());
+/**
+ * Runs the keyword and vector retrievers concurrently, merges their rankings
+ * with reciprocal rank fusion and re-ranks the fused top candidates before
+ * cutting the page. If the vectorizer is unavailable the keyword ranking is
+ * used on its own.
+ */
+public List<PublicUserProfileDTO> searchGigWorkersHybrid(String keyword, String city, String state, List<String> skills,
+                                                         Boolean openToWork, Integer pageSize) {
+    logger.debug("Hybrid searching for: {}", keyword);
+    // Fusion needs both full rankings, so each retriever returns its top maxPageSize workers
+    int depth = maxPageSize;
+
+    CompletableFuture<List<PublicUserProfileDTO>> lexical = CompletableFuture.supplyAsync(
+            () -> gigServiceRepository.searchGigWorkers(keyword, city, state, skills, openToWork, null, depth), searchExecutor);
+    CompletableFuture<List<PublicUserProfileDTO>> semantic = CompletableFuture.supplyAsync(() -> {
+        EmbeddingService.Embedding query = embeddingService.embed(keyword);
+        if (query == null) {
+            logger.warn("Could not generate vector for keyword: {}, using keyword results only", keyword);
+            return List.<PublicUserProfileDTO>of();
+        }
+        return gigServiceRepository.searchGigWorkersByVector(query.vector(), query.model(), query.fallback(), city, state,
+                skills, openToWork, null, depth);
+    }, searchExecutor).exceptionally(e -> {
+        logger.error("Vector retrieval failed for keyword {}: {}", keyword, e.getMessage());
+        return List.of();
+    });
+
+    // Both retrievers already return complete profiles, so fusion only reorders them
+    Map<String, PublicUserProfileDTO> profilesById = new HashMap<>();
+    List<String> lexicalIds = new ArrayList<>();
+    List<String> semanticIds = new ArrayList<>();
+    for (PublicUserProfileDTO profile : lexical.join()) {
+        profilesById.put(profile.getId(), profile);
+        lexicalIds.add(profile.getId());
+    }
+    for (PublicUserProfileDTO profile : semantic.join()) {
+        profilesById.putIfAbsent(profile.getId(), profile);
+        semanticIds.add(profile.getId());
+    }
 
-    List<PublicUserProfileDTO> profiles = matchingGigWorkerIds.stream()
-            .map(this::getPublicProfile)
-            .collect(Collectors.toList());
+    // The fused score, scaled to [0, 1] by the best possible one, stands in for the vector score when re-ranking
+    // the fused candidates; raw keyword and vector scores are not comparable
+    Map<String, Double> fused = RankFusion.scores(List.of(lexicalIds, semanticIds), rrfK);
+    double bestFused = 2.0 / (rrfK + 1);
+    List<PublicUserProfileDTO> candidates = new ArrayList<>();
+    for (Map.Entry<String, Double> entry : fused.entrySet()) {
+        if (candidates.size() == searchReranker.maxCandidates()) {
+            break;
+        }
+        PublicUserProfileDTO profile = profilesById.get(entry.getKey());
+        profile.setScore(entry.getValue() / bestFused);
+        candidates.add(profile);
+    }
+    List<PublicUserProfileDTO> reranked = searchReranker.rerank(candidates);
+    List<PublicUserProfileDTO> profiles = new ArrayList<>(reranked.subList(0, Math.min(pageSize(pageSize), reranked.size())));
 
-    logger.debug("Found {} gig workers matching semantic search", profiles.size());
+    logger.debug("Found {} gig workers matching hybrid search ({} keyword, {} semantic)",
+            profiles.size(), lexicalIds.size(), semanticIds.size());
     return profiles;
 }
 
-// --- ADD THIS HELPER METHOD ---
-private List<Double> getVectorForText(String text) {
-    try {
-        Map<String, String> requestBody = Map.of("text", text);
-        Map<String, Object> response = restTemplate.postForObject(vectorizerUrl, requestBody, Map.class);
-        if (response != null && response.containsKey("vector")) {
-            return (List<Double>) response.get("vector");
+/**
+ * Gig workers within {@code radiusKm} of the point, each with its distance. Without
+ * a keyword the nearest workers come first; with a keyword they are limited to
+ * workers offering a matching service, and with {@code semantic} they keep the
+ * vector ranking and the radius only filters. Open-to-work queries are answered
+ * from the in-memory location grid when it is loaded, the rest with $geoNear.
+ */
+public List<PublicUserProfileDTO> searchNearbyWorkers(double lat, double lng, double radiusKm, String keyword,
+                                                      boolean semantic, List<String> skills, Boolean openToWork,
+                                                      Integer pageSize) {
+    if (Math.abs(lat) > 90 || Math.abs(lng) > 180) {
+        throw new IllegalArgumentException("Invalid coordinates: " + lat + ", " + lng);
+    }
+    if (!(radiusKm > 0) || radiusKm > maxRadiusKm) {
+        throw new IllegalArgumentException("radiusKm must be between 0 and " + maxRadiusKm);
+    }
+    logger.debug("Nearby search around {}, {} within {} km, keyword: {}, semantic: {}", lat, lng, radiusKm, keyword,
+            semantic);
+    int size = pageSize(pageSize);
+    boolean hasKeyword = keyword != null && !keyword.isBlank();
+
+    if (hasKeyword && semantic) {
+        EmbeddingService.Embedding query = embeddingService.embed(keyword);
+        if (query == null) {
+            logger.warn("Could not generate vector for keyword: {}", keyword);
+            return new ArrayList<>();
         }
-    } catch (Exception e) {
-        logger.error("Failed to generate vector for text: " + text, e);
+        // Rank first, then keep the ranked workers that are close enough
+        List<PublicUserProfileDTO> ranked = gigServiceRepository.searchGigWorkersByVector(query.vector(), query.model(),
+                query.fallback(), null, null, skills, openToWork, null, maxPageSize);
+        Map<String, Double> distances = distancesWithin(lat, lng, radiusKm,
+                ranked.stream().map(PublicUserProfileDTO::getId).collect(Collectors.toList()), skills, openToWork);
+        List<PublicUserProfileDTO> profiles = new ArrayList<>();
+        for (PublicUserProfileDTO profile : ranked) {
+            Double distance = distances.get(profile.getId());
+            if (distance != null && profiles.size() < searchReranker.maxCandidates()) {
+                profile.setDistanceKm(distance);
+                profiles.add(profile);
+            }
+        }
+        // Trade relevance against distance over the nearby candidates, then keep one page
+        List<PublicUserProfileDTO> reranked = searchReranker.rerank(profiles);
+        return new ArrayList<>(reranked.subList(0, Math.min(size, reranked.size())));
     }
-    return null;
-} 
-public List<PublicUserProfileDTO> getRecommendedWorkers(String targetServiceId) {
-        // 1. Find the service the client is looking at
-        GigService targetService = gigServiceRepository.findById(targetServiceId)
-                .orElseThrow(() -> new RuntimeException("Target service not found: " + targetServiceId));
-
-        // 2. Get its vector
-        List<Double> targetVector = targetService.getServiceVector();
-        if (targetVector == null || targetVector.isEmpty()) {
-            logger.warn("Target service {} has no vector. Cannot find recommendations.", targetServiceId);
-            return new ArrayList<>(); // Can't recommend if we have no vector
+
+    Set<String> candidates = hasKeyword ? new HashSet<>(gigServiceRepository.findWorkerIdsByKeyword(keyword)) : null;
+    if (candidates != null && candidates.isEmpty()) {
+        return new ArrayList<>();
+    }
+    if (useLocationGrid(openToWork)) {
+        Map<String, Double> distances = new LinkedHashMap<>();
+        for (GeoGrid.Hit hit : workerLocationIndex.findOpenWorkersWithin(lng, lat, radiusKm)) {
+            if (candidates == null || candidates.contains(hit.key())) {
+                distances.put(hit.key(), hit.distanceKm());
+            }
         }
+        // Without a skills filter every hit qualifies, so only the nearest page is worth fetching
+        List<String> nearest = distances.keySet().stream()
+                .limit(skills == null || skills.isEmpty() ? size : Long.MAX_VALUE)
+                .collect(Collectors.toList());
+        List<PublicUserProfileDTO> profiles = userRepository.findGigWorkerProfiles(nearest, skills, openToWork, size);
+        profiles.forEach(profile -> profile.setDistanceKm(distances.get(profile.getId())));
+        return profiles;
+    }
+    return userRepository.findGigWorkersNear(lng, lat, radiusKm, candidates, skills, openToWork, size);
+}
 
-        // 3. Find semantically similar services
-        List<GigService> similarServices = gigServiceRepository.findSimilarServices(targetVector, targetServiceId);
-        
-        // 4. Get the unique workers from these services
-        Set<String> workerIdsToExclude = new HashSet<>();
-        // Exclude the worker who owns the target service
-        workerIdsToExclude.add(targetService.getUserId()); 
-
-        List<PublicUserProfileDTO> recommendations = new ArrayList<>();
-        
-        for (GigService service : similarServices) {
-            String workerId = service.getUserId();
-            
-            // If we haven't already added this worker, get their profile
-            if (!workerIdsToExclude.contains(workerId)) {
-                try {
-                    // REUSE your existing getPublicProfile method!
-                    PublicUserProfileDTO profile = getPublicProfile(workerId);
-                    if (profile != null) {
-                         recommendations.add(profile);
-                    }
-                    workerIdsToExclude.add(workerId); // Add to set so we don't add them again
-                } catch (Exception e) {
-                    logger.error("Error fetching public profile for recommended worker {}: {}", workerId, e.getMessage());
-                }
+// Distance of each of the given workers that lies within the radius
+private Map<String, Double> distancesWithin(double lat, double lng, double radiusKm, List<String> workerIds,
+                                            List<String> skills, Boolean openToWork) {
+    Map<String, Double> distances = new HashMap<>();
+    if (workerIds.isEmpty()) {
+        return distances;
+    }
+    if (useLocationGrid(openToWork)) {
+        Set<String> wanted = new HashSet<>(workerIds);
+        for (GeoGrid.Hit hit : workerLocationIndex.findOpenWorkersWithin(lng, lat, radiusKm)) {
+            if (wanted.contains(hit.key())) {
+                distances.put(hit.key(), hit.distanceKm());
             }
         }
-        
-        // 5. Sort the list: show highest-rated workers first
-        recommendations.sort(Comparator.comparing(PublicUserProfileDTO::getAverageRating).reversed());
+        return distances;
+    }
+    for (PublicUserProfileDTO near : userRepository.findGigWorkersNear(lng, lat, radiusKm, workerIds, skills, openToWork,
+            workerIds.size())) {
+        distances.put(near.getId(), near.getDistanceKm());
+    }
+    return distances;
+}
+
+// The grid only holds open-to-work workers, so it can answer only queries restricted to them
+private boolean useLocationGrid(Boolean openToWork) {
+    return Boolean.TRUE.equals(openToWork) && workerLocationIndex != null && workerLocationIndex.isReady();
+}
 
-        return recommendations;
+private int pageSize(Integer requested) {
+    if (requested == null) {
+        return defaultPageSize;
+    }
+    return Math.max(1, Math.min(requested, maxPageSize));
+}
+
+// Like toPage, but the cursor carries the re-ranked score the list is ordered by
+private static ProfilePageDTO toRankedPage(List<PublicUserProfileDTO> fetched, int pageSize) {
+    if (fetched.size() <= pageSize) {
+        return new ProfilePageDTO(new ArrayList<>(fetched), null);
+    }
+    List<PublicUserProfileDTO> items = new ArrayList<>(fetched.subList(0, pageSize));
+    PublicUserProfileDTO last = items.get(pageSize - 1);
+    return new ProfilePageDTO(items, new SearchCursor(rankKey(last), last.getId()).encode());
+}
+
+// Hits keep their vector score when re-ranking is disabled
+private static Double rankKey(PublicUserProfileDTO hit) {
+    return hit.getRankScore() != null ? hit.getRankScore() : hit.getScore();
+}
+
+// Callers fetch pageSize + 1 rows; the extra one only signals that another page exists
+private ProfilePageDTO toPage(List<PublicUserProfileDTO> fetched, int pageSize) {
+    if (fetched.size() <= pageSize) {
+        return new ProfilePageDTO(fetched, null);
+    }
+    List<PublicUserProfileDTO> items = new ArrayList<>(fetched.subList(0, pageSize));
+    PublicUserProfileDTO last = items.get(pageSize - 1);
+    return new ProfilePageDTO(items, new SearchCursor(last.getScore(), last.getId()).encode());
+}
+
+public List<PublicUserProfileDTO> getRecommendedWorkers(String targetServiceId) {
+        // Served from the materialized neighbour list: one aggregation builds the profiles
+        List<PublicUserProfileDTO> recommendations = similarServicesRepository.findRecommendedWorkers(targetServiceId);
+        if (recommendations.isEmpty() && !similarServicesRepository.existsById(targetServiceId)) {
+            // Not computed yet (e.g. a brand-new service); queue it and serve the empty list meanwhile
+            similarServicesService.requestCompute(targetServiceId);
+        }
+        return searchReranker.rerank(recommendations);
     }
 }
\ No newline at end of file
@@ -0,0 +1,280 @@
+package com.example.gigconnect.service;
+
+import com.example.gigconnect.dto.BackfillStatusDTO;
+import com.example.gigconnect.model.GigService;
+import com.example.gigconnect.model.JobCheckpoint;
+import com.example.gigconnect.repository.JobCheckpointRepository;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+/**
+ * Background job that embeds every service without a vector, or without the
+ * fallback model's vector (services that have a primary vector only get the
+ * fallback one, which keeps search working during an embedder outage). Services are
+ * streamed in _id order through a cursor, embedded with a bounded number of
+ * in-flight vectorizer requests and written back with unordered bulk updates.
+ * After every batch the last handled _id is checkpointed, so a failed or
+ * interrupted run (including an application restart) resumes where it stopped.
+ * Runs on the application task executor; shutting it down interrupts the run
+ * between batches and leaves the checkpoint RUNNING for the next start.
+ */
+@Service
+public class VectorBackfillJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(VectorBackfillJob.class);
+    static final String JOB_ID = "service-vector-backfill";
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private JobCheckpointRepository checkpointRepository;
+
+    @Autowired
+    private EmbeddingService embeddingService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private TaskExecutor taskExecutor;
+
+    @Value("${backfill.batch-size:100}")
+    private int batchSize;
+
+    @Value("${backfill.concurrency:16}")
+    private int concurrency;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile JobCheckpoint checkpoint;
+    private volatile long remainingAtStart;
+    private volatile long processedThisRun;
+    private volatile long runStartedNanos;
+
+    /**
+     * Starts a run in the background. Returns false if one is already running.
+     */
+    public boolean start() {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        try {
+            taskExecutor.execute(this::run);
+        } catch (TaskRejectedException e) {
+            running.set(false);
+            throw e;
+        }
+        return true;
+    }
+
+    // Also starts a run when services lack a fallback vector, e.g. the first start after fallback vectors were added
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeInterruptedRun() {
+        try {
+            JobCheckpoint interrupted = checkpointRepository.findById(JOB_ID)
+                    .filter(saved -> "RUNNING".equals(saved.getStatus()))
+                    .orElse(null);
+            if (interrupted != null) {
+                logger.info("Resuming vector backfill after service {}", interrupted.getLastProcessedId());
+                start();
+            } else if (embeddingService.fallbackModel() != null
+                    && mongoTemplate.exists(new Query(Criteria.where("fallbackVector").is(null)), GigService.class)) {
+                logger.info("Starting vector backfill for services without a {} vector", embeddingService.fallbackModel());
+                start();
+            }
+        } catch (Exception e) {
+            logger.warn("Could not check for an interrupted vector backfill: {}", e.getMessage());
+        }
+    }
+
+    public BackfillStatusDTO getStatus() {
+        BackfillStatusDTO status = new BackfillStatusDTO();
+        JobCheckpoint current = checkpoint != null ? checkpoint : checkpointRepository.findById(JOB_ID).orElse(null);
+        status.setRunning(running.get());
+        if (current == null) {
+            status.setStatus("NOT_STARTED");
+            return status;
+        }
+        status.setStatus(current.getStatus());
+        status.setProcessed(current.getProcessed());
+        status.setUpdated(current.getUpdated());
+        status.setFailed(current.getFailed());
+        status.setLastProcessedId(current.getLastProcessedId());
+        if (running.get()) {
+            double elapsedSeconds = (System.nanoTime() - runStartedNanos) / 1e9;
+            long remaining = Math.max(0, remainingAtStart - processedThisRun);
+            double rate = elapsedSeconds > 0 ? processedThisRun / elapsedSeconds : 0;
+            status.setRemaining(remaining);
+            status.setServicesPerSecond(rate);
+            status.setEtaSeconds(rate > 0 ? Math.round(remaining / rate) : null);
+        }
+        return status;
+    }
+
+    private void run() {
+        try {
+            JobCheckpoint current = checkpointRepository.findById(JOB_ID)
+                    .filter(saved -> !"COMPLETED".equals(saved.getStatus()))
+                    .orElseGet(this::newCheckpoint);
+            current.setStatus("RUNNING");
+            checkpoint = checkpointRepository.save(current);
+
+            Query query = new Query(missingVectors());
+            if (current.getLastProcessedId() != null) {
+                query.addCriteria(Criteria.where("_id").gt(current.getLastProcessedId()));
+            }
+            remainingAtStart = mongoTemplate.count(query, GigService.class);
+            processedThisRun = 0;
+            runStartedNanos = System.nanoTime();
+            logger.info("Vector backfill started, {} services without a vector", remainingAtStart);
+
+            query.with(Sort.by(Sort.Direction.ASC, "_id")).cursorBatchSize(batchSize);
+            try (Stream<GigService> services = mongoTemplate.stream(query, GigService.class)) {
+                List<GigService> batch = new ArrayList<>(batchSize);
+                for (GigService service : (Iterable<GigService>) services::iterator) {
+                    if (Thread.currentThread().isInterrupted()) {
+                        throw new InterruptedException();
+                    }
+                    batch.add(service);
+                    if (batch.size() == batchSize) {
+                        processBatch(batch);
+                        batch.clear();
+                    }
+                }
+                if (!batch.isEmpty()) {
+                    processBatch(batch);
+                }
+            }
+
+            // Start from the beginning next time, which also retries services that failed here
+            JobCheckpoint done = checkpoint;
+            done.setStatus("COMPLETED");
+            done.setLastProcessedId(null);
+            done.setUpdatedAt(LocalDateTime.now());
+            checkpoint = checkpointRepository.save(done);
+            logger.info("Vector backfill complete. Updated {} services, {} failed.", done.getUpdated(), done.getFailed());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.warn("Vector backfill interrupted; it resumes from the last checkpoint on the next start");
+        } catch (Exception e) {
+            logger.error("Vector backfill stopped: {}", e.getMessage());
+            if (checkpoint != null) {
+                checkpoint.setStatus("FAILED");
+                try {
+                    checkpointRepository.save(checkpoint);
+                } catch (Exception saveError) {
+                    logger.error("Could not record vector backfill failure: {}", saveError.getMessage());
+                }
+            }
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private void processBatch(List<GigService> batch) throws InterruptedException {
+        Semaphore permits = new Semaphore(concurrency);
+        List<CompletableFuture<EmbeddingService.Embedding>> embeddings = new ArrayList<>(batch.size());
+        for (GigService service : batch) {
+            if (service.getServiceVector() != null) {
+                // Only the fallback vector is missing
+                embeddings.add(CompletableFuture.completedFuture(
+                        new EmbeddingService.Embedding(service.getServiceVector(), service.getEmbeddingModel())));
+                continue;
+            }
+            permits.acquire();
+            CompletableFuture<EmbeddingService.Embedding> embedding = embeddingService.embedAsync(
+                    GigServiceService.embeddingText(service.getTitle(), service.getDescription()));
+            embedding.whenComplete((result, error) -> permits.release());
+            embeddings.add(embedding);
+        }
+
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, GigService.class);
+        List<GigService> updated = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            EmbeddingService.Embedding embedding = embeddings.get(i).exceptionally(error -> null).join();
+            if (embedding == null) {
+                continue;
+            }
+            GigService service = batch.get(i);
+            float[] fallbackVector = embeddingService.fallbackVector(
+                    GigServiceService.embeddingText(service.getTitle(), service.getDescription()), embedding);
+            Update update = new Update();
+            if (service.getServiceVector() == null) {
+                String hash = GigServiceService.contentHash(service.getTitle(), service.getDescription());
+                service.setServiceVector(embedding.vector());
+                service.setEmbeddingModel(embedding.model());
+                service.setContentHash(hash);
+                update.set("serviceVector", embedding.vector())
+                        .set("embeddingModel", embedding.model())
+                        .set("contentHash", hash);
+            } else if (fallbackVector == null) {
+                continue;
+            }
+            if (fallbackVector != null) {
+                service.setFallbackVector(fallbackVector);
+                update.set("fallbackVector", fallbackVector);
+            }
+            bulk.updateOne(new Query(Criteria.where("_id").is(service.getId())), update);
+            updated.add(service);
+        }
+        if (!updated.isEmpty()) {
+            bulk.execute();
+            // Bulk updates bypass the mapping events, so tell the in-memory indexes ourselves
+            for (GigService service : updated) {
+                eventPublisher.publishEvent(new AfterSaveEvent<>(service, new Document("_id", service.getId()), "services"));
+            }
+        }
+
+        JobCheckpoint current = checkpoint;
+        current.setLastProcessedId(batch.get(batch.size() - 1).getId());
+        current.setProcessed(current.getProcessed() + batch.size());
+        current.setUpdated(current.getUpdated() + updated.size());
+        current.setFailed(current.getFailed() + batch.size() - updated.size());
+        current.setUpdatedAt(LocalDateTime.now());
+        checkpoint = checkpointRepository.save(current);
+        processedThisRun += batch.size();
+    }
+
+    private Criteria missingVectors() {
+        if (embeddingService.fallbackModel() == null) {
+            return Criteria.where("serviceVector").is(null);
+        }
+        return new Criteria().orOperator(Criteria.where("serviceVector").is(null),
+                Criteria.where("fallbackVector").is(null));
+    }
+
+    private JobCheckpoint newCheckpoint() {
+        JobCheckpoint fresh = new JobCheckpoint();
+        fresh.setId(JOB_ID);
+        fresh.setStartedAt(LocalDateTime.now());
+        return fresh;
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.gigconnect.service;
+
+import com.example.gigconnect.config.FloatVectorConverter;
+import com.example.gigconnect.config.MongoConfig;
+import com.example.gigconnect.search.VectorMath;
+import org.bson.Document;
+import org.bson.types.Binary;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.core.schema.JsonSchemaObject;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Rewrites stored service vectors into the representation selected by
+ * {@code vector.storage}. Documents are streamed through a cursor and updated
+ * in unordered bulk batches, so the whole collection is never held in memory.
+ */
+@Service
+public class VectorStorageMigrationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(VectorStorageMigrationService.class);
+    private static final int BATCH_SIZE = 500;
+    private static final List<String> VECTOR_FIELDS = List.of("serviceVector", "fallbackVector");
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private MongoConfig mongoConfig;
+
+    public String migrateServiceVectors() {
+        boolean toBinary = mongoConfig.isBinaryVectorStorage();
+        logger.info("Migrating service vectors to {} storage...", toBinary ? "binary" : "array");
+
+        long migrated = 0;
+        for (String field : VECTOR_FIELDS) {
+            migrated += migrateField(field, toBinary);
+        }
+
+        String message = "Vector storage migration complete. Updated " + migrated + " service vectors.";
+        logger.info(message);
+        return message;
+    }
+
+    private long migrateField(String field, boolean toBinary) {
+        // Only documents still in the other representation need rewriting
+        Query query = new Query(Criteria.where(field)
+                .type(toBinary ? JsonSchemaObject.Type.ARRAY : JsonSchemaObject.Type.BINARY_DATA));
+        query.fields().include(field);
+
+        long migrated = 0;
+        int pending = 0;
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, "services");
+        try (Stream<Document> documents = mongoTemplate.stream(query, Document.class, "services")) {
+            for (Document document : (Iterable<Document>) documents::iterator) {
+                Object converted = toBinary
+                        ? FloatVectorConverter.encode(VectorMath.toFloatArray(document.getList(field, Number.class)))
+                        : FloatVectorConverter.toDoubleList(FloatVectorConverter.decode((Binary) document.get(field)));
+                bulk.updateOne(new Query(Criteria.where("_id").is(document.get("_id"))),
+                        new Update().set(field, converted));
+                if (++pending == BATCH_SIZE) {
+                    migrated += bulk.execute().getModifiedCount();
+                    bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, "services");
+                    pending = 0;
+                }
+            }
+        }
+        if (pending > 0) {
+            migrated += bulk.execute().getModifiedCount();
+        }
+        return migrated;
+    }
+}
@@ -0,0 +1,240 @@
+package com.example.gigconnect.service;
+
+import com.example.gigconnect.search.VectorMath;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shared client for the Python vectorizer. Concurrent callers are queued and a
+ * dispatcher thread sends them with at most {@code maxInFlight} calls at once.
+ * When the vectorizer has a batch endpoint ({@code vectorizer.batch.enabled}),
+ * queued texts are grouped into one HTTP call per batch: a batch is sent as soon
+ * as it holds {@code maxBatchSize} texts or {@code lingerMs} has passed since its
+ * first text arrived. If that endpoint answers 404, the client goes back to one
+ * call per text. Each caller gets its own vector back through a future.
+ * Calls go through the "vectorizer" {@link OutboundTarget}, so they time out and
+ * fail fast while the vectorizer is down.
+ */
+@Service
+public class VectorizerClient implements Embedder {
+
+    private static final Logger logger = LoggerFactory.getLogger(VectorizerClient.class);
+
+    private record PendingText(String text, CompletableFuture<float[]> future) {
+    }
+
+    @Autowired
+    private OutboundTargets outboundTargets;
+
+    @Value("${vectorizer.url:http://localhost:5001/vectorize}")
+    private String vectorizerUrl;
+
+    @Value("${vectorizer.batch-url:http://localhost:5001/vectorize-batch}")
+    private String batchUrl;
+
+    @Value("${vectorizer.batch.enabled:false}")
+    private boolean batchEnabled;
+
+    @Value("${vectorizer.batch.max-size:32}")
+    private int maxBatchSize;
+
+    @Value("${vectorizer.batch.linger-ms:5}")
+    private long lingerMs;
+
+    @Value("${vectorizer.batch.max-in-flight:4}")
+    private int maxInFlight;
+
+    @Value("${vectorizer.timeout-ms:10000}")
+    private long timeoutMs;
+
+    @Value("${vectorizer.model:vectorizer}")
+    private String model;
+
+    private final BlockingQueue<PendingText> queue = new LinkedBlockingQueue<>();
+    private final DistributionSummary batchSize;
+    private final DistributionSummary batchFillRatio;
+    private final Counter failedBatches;
+    private OutboundTarget vectorizer;
+    private Semaphore inFlight;
+    private ExecutorService senders;
+    private Thread dispatcher;
+    private volatile boolean running;
+    private volatile boolean batching;
+
+    public VectorizerClient(MeterRegistry meterRegistry) {
+        this.batchSize = DistributionSummary.builder("vectorizer.batch.size")
+                .description("Texts sent per vectorizer call")
+                .register(meterRegistry);
+        this.batchFillRatio = DistributionSummary.builder("vectorizer.batch.fill.ratio")
+                .description("Batch size divided by the configured maximum batch size")
+                .register(meterRegistry);
+        this.failedBatches = Counter.builder("vectorizer.batch.failures")
+                .description("Vectorizer calls that failed")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        vectorizer = outboundTargets.target("vectorizer");
+        inFlight = new Semaphore(maxInFlight);
+        batching = batchEnabled;
+        senders = Executors.newFixedThreadPool(maxInFlight, runnable -> {
+            Thread thread = new Thread(runnable, "vectorizer-sender");
+            thread.setDaemon(true);
+            return thread;
+        });
+        running = true;
+        dispatcher = new Thread(this::dispatchLoop, "vectorizer-batcher");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+    }
+
+    @PreDestroy
+    void stop() {
+        running = false;
+        dispatcher.interrupt();
+        senders.shutdownNow();
+    }
+
+    @Override
+    public String model() {
+        return model;
+    }
+
+    @Override
+    public CompletableFuture<float[]> embedAsync(String text) {
+        CompletableFuture<float[]> future = new CompletableFuture<>();
+        queue.add(new PendingText(text, future));
+        return future;
+    }
+
+    /**
+     * Blocking variant that keeps the old helper semantics: returns null when the
+     * vectorizer fails or does not answer in time.
+     */
+    public float[] embed(String text) {
+        try {
+            return embedAsync(text).get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            logger.error("Failed to generate vector for text: {}", e.getMessage());
+        }
+        return null;
+    }
+
+    private void dispatchLoop() {
+        while (running) {
+            try {
+                // Waiting for a free sender first lets the queue fill up while calls are slow
+                inFlight.acquire();
+                List<PendingText> batch = new ArrayList<>(maxBatchSize);
+                batch.add(queue.take());
+                int limit = batching ? maxBatchSize : 1;
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(lingerMs);
+                while (batch.size() < limit) {
+                    long remaining = deadline - System.nanoTime();
+                    PendingText next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                senders.execute(() -> {
+                    try {
+                        send(batch);
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void send(List<PendingText> batch) {
+        // Identical texts in the same batch are embedded once
+        Map<String, List<CompletableFuture<float[]>>> waiters = new LinkedHashMap<>();
+        for (PendingText pending : batch) {
+            waiters.computeIfAbsent(pending.text(), t -> new ArrayList<>()).add(pending.future());
+        }
+        List<String> texts = new ArrayList<>(waiters.keySet());
+        batchSize.record(texts.size());
+        batchFillRatio.record((double) texts.size() / maxBatchSize);
+
+        try {
+            List<float[]> vectors = texts.size() == 1 ? List.of(callSingle(texts.get(0))) : callBatchOrEach(texts);
+            for (int i = 0; i < texts.size(); i++) {
+                float[] vector = vectors.get(i);
+                waiters.get(texts.get(i)).forEach(future -> future.complete(vector));
+            }
+        } catch (Exception e) {
+            failedBatches.increment();
+            logger.error("Vectorizer call for {} texts failed: {}", texts.size(), e.getMessage());
+            waiters.values().forEach(futures -> futures.forEach(future -> future.completeExceptionally(e)));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private float[] callSingle(String text) {
+        Map<String, Object> response = vectorizer.call(() ->
+                vectorizer.restTemplate().postForObject(vectorizerUrl, Map.of("text", text), Map.class));
+        if (response == null || !response.containsKey("vector")) {
+            throw new IllegalStateException("Vectorizer response has no vector");
+        }
+        return VectorMath.toFloatArray((List<Number>) response.get("vector"));
+    }
+
+    private List<float[]> callBatchOrEach(List<String> texts) {
+        if (batching) {
+            try {
+                return callBatch(texts);
+            } catch (HttpClientErrorException.NotFound e) {
+                batching = false;
+                logger.warn("Vectorizer has no batch endpoint at {}; sending one text per call", batchUrl);
+            }
+        }
+        List<float[]> vectors = new ArrayList<>(texts.size());
+        for (String text : texts) {
+            vectors.add(callSingle(text));
+        }
+        return vectors;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<float[]> callBatch(List<String> texts) {
+        Map<String, Object> response = vectorizer.call(() ->
+                vectorizer.restTemplate().postForObject(batchUrl, Map.of("texts", texts), Map.class));
+        if (response == null || !(response.get("vectors") instanceof List<?> raw) || raw.size() != texts.size()) {
+            throw new IllegalStateException("Vectorizer batch response does not match the request");
+        }
+        List<float[]> vectors = new ArrayList<>(raw.size());
+        for (Object vector : raw) {
+            vectors.add(VectorMath.toFloatArray((List<Number>) vector));
+        }
+        return vectors;
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.gigconnect.service;
+
+import com.example.gigconnect.model.GigService;
+import com.example.gigconnect.model.User;
+import com.example.gigconnect.search.SearchFilters;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Keeps the worker's city, state, skills and openToWork flag copied onto each of
+ * their services, where $vectorSearch can use them as pre-filters.
+ */
+@Service
+public class WorkerFieldsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(WorkerFieldsService.class);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private SearchResultCache searchResultCache;
+
+    @Autowired
+    private ProfileCache profileCache;
+
+    public void copyTo(GigService service, User worker) {
+        service.setWorkerCity(SearchFilters.normalize(worker.getCity()));
+        service.setWorkerState(SearchFilters.normalize(worker.getState()));
+        service.setWorkerSkills(normalizedSkills(worker));
+        service.setWorkerOpenToWork(worker.isOpenToWork());
+    }
+
+    /**
+     * Rewrites the copied fields on all of the worker's services.
+     */
+    public long propagate(User worker) {
+        Update update = new Update()
+                .set("workerCity", SearchFilters.normalize(worker.getCity()))
+                .set("workerState", SearchFilters.normalize(worker.getState()))
+                .set("workerSkills", normalizedSkills(worker))
+                .set("workerOpenToWork", worker.isOpenToWork());
+        return mongoTemplate.updateMulti(new Query(Criteria.where("userId").is(worker.getId())), update, GigService.class)
+                .getModifiedCount();
+    }
+
+    /**
+     * One-off repair for services created before the fields existed.
+     */
+    public String resyncAll() {
+        logger.info("Copying worker fields onto services...");
+        long updated = 0;
+        Query workers = new Query(Criteria.where("role").is("GIG_WORKER"));
+        try (Stream<User> users = mongoTemplate.stream(workers, User.class)) {
+            for (User worker : (Iterable<User>) users::iterator) {
+                updated += propagate(worker);
+            }
+        }
+        searchResultCache.clear();
+        profileCache.clear(); // Profiles embed the services with their copied fields
+        String message = "Worker field sync complete. Updated " + updated + " services.";
+        logger.info(message);
+        return message;
+    }
+
+    private static String[] normalizedSkills(User worker) {
+        List<String> skills = SearchFilters.normalize(worker.getSkills() == null ? null : Arrays.asList(worker.getSkills()));
+        return skills.toArray(new String[0]);
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.gigconnect.config;
+
+import org.bson.Document;
+import org.bson.types.Binary;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class FloatVectorConverterTest {
+
+    private final float[] vector = {0.5f, -1.25f, 3.0f};
+
+    @Test
+    void bothStorageFormsRoundTrip() {
+        FloatVectorConverter binary = new FloatVectorConverter(true);
+        FloatVectorConverter doubles = new FloatVectorConverter(false);
+
+        Binary packed = (Binary) binary.write(vector, null);
+        assertEquals(FloatVectorConverter.VECTOR_SUBTYPE, packed.getType());
+        assertArrayEquals(vector, binary.read(packed, null));
+        assertEquals(List.of(0.5, -1.25, 3.0), doubles.write(vector, null));
+        // Either form is readable whatever the configured storage
+        assertArrayEquals(vector, doubles.read(packed, null));
+        assertArrayEquals(vector, binary.read(List.of(0.5, -1.25, 3.0), null));
+    }
+
+    @Test
+    void nullsAndQueryCriteriaPassThrough() {
+        FloatVectorConverter converter = new FloatVectorConverter(true);
+        Document criteria = new Document("$type", "binData");
+
+        assertNull(converter.write(null, null));
+        assertSame(criteria, converter.write(criteria, null));
+        assertNull(converter.read(null, null));
+    }
+}
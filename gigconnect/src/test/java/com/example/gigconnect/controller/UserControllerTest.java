@@ -0,0 +1,32 @@
+package com.example.gigconnect.controller;
+
+import com.example.gigconnect.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class UserControllerTest {
+
+    @Mock
+    private UserService userService;
+
+    @InjectMocks
+    private UserController userController;
+
+    @Test
+    void tooManyProfileIdsIsABadRequest() {
+        List<String> ids = List.of("a", "b");
+        when(userService.getPublicProfiles(ids)).thenThrow(new IllegalArgumentException("At most 1 profiles"));
+
+        assertEquals(HttpStatus.BAD_REQUEST, userController.getPublicProfiles(ids).getStatusCode());
+    }
+}
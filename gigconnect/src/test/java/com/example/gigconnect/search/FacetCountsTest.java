@@ -0,0 +1,41 @@
+package com.example.gigconnect.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FacetCountsTest {
+
+    @Test
+    void countsEachOwnerOncePerValue() {
+        FacetCounts counts = new FacetCounts();
+        counts.put("w1", Map.of("category", List.of("Design", "Design", "Web"), "city", List.of("pune")));
+        counts.put("w2", Map.of("category", List.of("Design"), "city", List.of("nagpur")));
+        counts.put("w3", Map.of("category", List.of("Tutoring"), "city", List.of("pune")));
+
+        assertEquals(List.of(new FacetCounts.Count("Design", 2), new FacetCounts.Count("Tutoring", 1),
+                new FacetCounts.Count("Web", 1)), counts.top("category", 10));
+        assertEquals(List.of(new FacetCounts.Count("pune", 2)), counts.top("city", 1));
+        assertEquals(3, counts.owners());
+    }
+
+    @Test
+    void replacingAndRemovingOwnersUpdatesCounts() {
+        FacetCounts counts = new FacetCounts();
+        counts.put("w1", Map.of("category", List.of("Design"), "city", List.of("pune")));
+        counts.put("w2", Map.of("category", List.of("Design")));
+
+        counts.put("w1", Map.of("category", List.of("Web")));
+        assertEquals(List.of(new FacetCounts.Count("Design", 1), new FacetCounts.Count("Web", 1)), counts.top("category", 10));
+        assertTrue(counts.top("city", 10).isEmpty());
+
+        counts.remove("w2");
+        counts.remove("unknown");
+        assertEquals(List.of(new FacetCounts.Count("Web", 1)), counts.top("category", 10));
+        assertEquals(1, counts.owners());
+    }
+}
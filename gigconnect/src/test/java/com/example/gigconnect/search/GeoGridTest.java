@@ -0,0 +1,64 @@
+package com.example.gigconnect.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GeoGridTest {
+
+    @Test
+    void withinMatchesBruteForceDistanceScan() {
+        Random random = new Random(3);
+        GeoGrid grid = new GeoGrid(5);
+        double[][] points = new double[5000][];
+        for (int i = 0; i < points.length; i++) {
+            // Clustered around Pune, plus a few far away and near the antimeridian
+            points[i] = i % 10 == 0
+                    ? new double[]{random.nextDouble() * 360 - 180, random.nextDouble() * 170 - 85}
+                    : new double[]{73.85 + random.nextGaussian() * 0.3, 18.52 + random.nextGaussian() * 0.3};
+            grid.put("w" + i, points[i][0], points[i][1]);
+        }
+        grid.put("east", 179.99, 10);
+        grid.put("west", -179.99, 10);
+
+        double[][] queries = {{73.85, 18.52, 5}, {73.9, 18.6, 25}, {74.5, 19, 1}, {179.995, 10, 5}, {0, 89.9, 50}};
+        for (double[] q : queries) {
+            Set<String> expected = new TreeSet<>();
+            for (int i = 0; i < points.length; i++) {
+                if (GeoGrid.distanceKm(q[0], q[1], points[i][0], points[i][1]) <= q[2]) {
+                    expected.add("w" + i);
+                }
+            }
+            if (GeoGrid.distanceKm(q[0], q[1], 179.99, 10) <= q[2]) {
+                expected.add("east");
+            }
+            if (GeoGrid.distanceKm(q[0], q[1], -179.99, 10) <= q[2]) {
+                expected.add("west");
+            }
+            List<GeoGrid.Hit> hits = grid.within(q[0], q[1], q[2]);
+            assertEquals(expected, hits.stream().map(GeoGrid.Hit::key).collect(Collectors.toCollection(TreeSet::new)));
+            for (int i = 1; i < hits.size(); i++) {
+                assertTrue(hits.get(i - 1).distanceKm() <= hits.get(i).distanceKm());
+            }
+        }
+        assertTrue(grid.within(179.995, 10, 5).size() >= 2);
+    }
+
+    @Test
+    void removeAndMoveUpdateTheGrid() {
+        GeoGrid grid = new GeoGrid(6);
+        grid.put("a", 73.85, 18.52);
+        grid.put("a", 72.88, 19.07);
+        assertTrue(grid.within(73.85, 18.52, 2).isEmpty());
+        assertEquals(1, grid.within(72.88, 19.07, 2).size());
+        grid.remove("a");
+        assertEquals(0, grid.size());
+    }
+}
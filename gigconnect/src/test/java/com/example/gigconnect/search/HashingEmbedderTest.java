@@ -0,0 +1,34 @@
+package com.example.gigconnect.search;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HashingEmbedderTest {
+
+    private final HashingEmbedder embedder = new HashingEmbedder(384);
+
+    @Test
+    void embeddingsAreUnitLengthAndDeterministic() {
+        float[] vector = embedder.embed("Wedding photography in Pune");
+
+        assertEquals(384, vector.length);
+        assertEquals(1.0, VectorMath.dot(vector, vector), 1e-5);
+        assertArrayEquals(vector, new HashingEmbedder(384).embed("wedding   PHOTOGRAPHY in pune"));
+        assertNull(embedder.embed("  ... "));
+        assertThrows(IllegalArgumentException.class, () -> new HashingEmbedder(4));
+    }
+
+    @Test
+    void sharedWordsAndFragmentsScoreHigher() {
+        float[] query = embedder.embed("photographer for a wedding");
+        float[] related = embedder.embed("Wedding photography and editing");
+        float[] unrelated = embedder.embed("Leaking kitchen tap repair");
+
+        assertTrue(VectorMath.cosine(query, related) > VectorMath.cosine(query, unrelated) + 0.2);
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.gigconnect.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HnswIndexTest {
+
+    private static final int DIMENSIONS = 32;
+
+    @Test
+    void searchFindsMostOfTheExactNearestNeighbours() {
+        Random random = new Random(7);
+        float[][] vectors = new float[2000][];
+        HnswIndex index = new HnswIndex(16, 200);
+        for (int i = 0; i < vectors.length; i++) {
+            vectors[i] = randomVector(random, DIMENSIONS);
+            index.add("s" + i, vectors[i]);
+        }
+
+        int k = 10;
+        int found = 0;
+        for (int q = 0; q < 50; q++) {
+            float[] query = randomVector(random, DIMENSIONS);
+            Set<String> exact = IntStream.range(0, vectors.length).boxed()
+                    .sorted(Comparator.comparingDouble(i -> -VectorMath.cosine(query, vectors[i])))
+                    .limit(k)
+                    .map(i -> "s" + i)
+                    .collect(Collectors.toSet());
+            for (HnswIndex.Hit hit : index.search(query, k, 100)) {
+                if (exact.contains(hit.key())) {
+                    found++;
+                }
+            }
+        }
+        double recall = found / (50.0 * k);
+        assertTrue(recall > 0.9, "recall was " + recall);
+    }
+
+    @Test
+    void quantizedIndexKeepsRecall() {
+        Random random = new Random(3);
+        float[][] vectors = new float[2000][];
+        HnswIndex index = new HnswIndex(16, 200);
+        for (int i = 0; i < 1000; i++) {
+            vectors[i] = randomVector(random, DIMENSIONS);
+            index.add("s" + i, vectors[i]);
+        }
+        // Quantize halfway so both converted and newly inserted nodes are searched
+        index.quantize();
+        for (int i = 1000; i < vectors.length; i++) {
+            vectors[i] = randomVector(random, DIMENSIONS);
+            index.add("s" + i, vectors[i]);
+        }
+        assertTrue(index.isQuantized());
+
+        int k = 10;
+        int found = 0;
+        for (int q = 0; q < 50; q++) {
+            float[] query = randomVector(random, DIMENSIONS);
+            Set<String> exact = IntStream.range(0, vectors.length).boxed()
+                    .sorted(Comparator.comparingDouble(i -> -VectorMath.cosine(query, vectors[i])))
+                    .limit(k)
+                    .map(i -> "s" + i)
+                    .collect(Collectors.toSet());
+            for (HnswIndex.Hit hit : index.search(query, k, 100)) {
+                if (exact.contains(hit.key())) {
+                    found++;
+                }
+            }
+        }
+        double recall = found / (50.0 * k);
+        assertTrue(recall > 0.85, "recall was " + recall);
+    }
+
+    @Test
+    void quantizedIndexIsAFractionOfTheFloatIndex() {
+        // Embedding-sized vectors, so the int8 codes rather than the links dominate the footprint
+        Random random = new Random(5);
+        HnswIndex floats = new HnswIndex(16, 100);
+        HnswIndex quantized = new HnswIndex(16, 100);
+        quantized.quantize();
+        for (int i = 0; i < 500; i++) {
+            float[] vector = randomVector(random, 384);
+            floats.add("s" + i, vector);
+            quantized.add("s" + i, vector);
+        }
+        assertEquals(floats.size(), quantized.size());
+        double ratio = (double) quantized.memoryBytes() / floats.memoryBytes();
+        assertTrue(ratio < 0.4, "quantized / float memory was " + ratio);
+    }
+
+    @Test
+    void removedAndReplacedKeysAreNotReturnedWithStaleVectors() {
+        Random random = new Random(11);
+        HnswIndex index = new HnswIndex(8, 50);
+        for (int i = 0; i < 300; i++) {
+            index.add("s" + i, randomVector(random, DIMENSIONS));
+        }
+        float[] target = randomVector(random, DIMENSIONS);
+        index.add("s5", target);
+        index.remove("s6");
+
+        List<HnswIndex.Hit> hits = index.search(target, 5, 50);
+        assertEquals("s5", hits.get(0).key());
+
+        Set<String> keys = new HashSet<>();
+        for (int i = 0; i < 200; i++) {
+            index.remove("s" + i);
+        }
+        index.search(randomVector(random, DIMENSIONS), 50, 100).forEach(hit -> keys.add(hit.key()));
+        assertFalse(keys.contains("s6"));
+        assertFalse(keys.contains("s5"));
+        assertEquals(100, index.size());
+    }
+
+    private static float[] randomVector(Random random, int dimensions) {
+        float[] v = new float[dimensions];
+        for (int i = 0; i < v.length; i++) {
+            v[i] = (float) random.nextGaussian();
+        }
+        return v;
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.gigconnect.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PrefixTrieTest {
+
+    private static final String[] WORDS = {"plumbing", "web", "design", "react", "logo", "tutor", "home", "repair", "java", "photo"};
+
+    @Test
+    void suggestsHeaviestPhrasesWithAWordStartingWithThePrefix() {
+        PrefixTrie trie = new PrefixTrie();
+        trie.add("Logo Design", 3);
+        trie.add("logo  design", 2);
+        trie.add("Web design", 4);
+        trie.add("Design", 1);
+        trie.add("Plumbing", 10);
+
+        assertEquals(List.of(new PrefixTrie.Suggestion("Logo Design", 5), new PrefixTrie.Suggestion("Web design", 4),
+                new PrefixTrie.Suggestion("Design", 1)), trie.suggest("DES", 10));
+        assertEquals(List.of(new PrefixTrie.Suggestion("Logo Design", 5)), trie.suggest("logo d", 10));
+        assertEquals(List.of(new PrefixTrie.Suggestion("Plumbing", 10)), trie.suggest("p", 1));
+        assertTrue(trie.suggest("sign", 10).isEmpty());
+
+        trie.add("Logo Design", -5);
+        trie.add("Unknown", -1);
+        assertEquals(List.of(new PrefixTrie.Suggestion("Web design", 4), new PrefixTrie.Suggestion("Design", 1)),
+                trie.suggest("de", 10));
+        assertTrue(trie.suggest("logo", 10).isEmpty());
+        assertEquals(3, trie.size());
+    }
+
+    @Test
+    void bestFirstSearchMatchesFullScan() {
+        Random random = new Random(5);
+        PrefixTrie trie = new PrefixTrie();
+        Map<String, Long> weights = new HashMap<>();
+        for (int i = 0; i < 5000; i++) {
+            String phrase = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)] + " " + random.nextInt(50);
+            long delta = random.nextInt(4) == 0 ? -1 : 1 + random.nextInt(3);
+            long current = weights.getOrDefault(phrase, 0L);
+            if (current + delta <= 0) {
+                if (current > 0) {
+                    weights.remove(phrase);
+                    trie.add(phrase, delta);
+                }
+                continue;
+            }
+            weights.put(phrase, current + delta);
+            trie.add(phrase, delta);
+        }
+
+        for (String prefix : new String[]{"de", "web d", "r", "7", "photo", "zz"}) {
+            List<Map.Entry<String, Long>> expected = new ArrayList<>();
+            for (Map.Entry<String, Long> entry : weights.entrySet()) {
+                for (String word : entry.getKey().split(" ")) {
+                    String from = entry.getKey().substring(entry.getKey().indexOf(word));
+                    if (from.startsWith(prefix.toLowerCase(Locale.ROOT))) {
+                        expected.add(entry);
+                        break;
+                    }
+                }
+            }
+            expected.sort(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder()));
+            List<PrefixTrie.Suggestion> actual = trie.suggest(prefix, 5);
+            assertEquals(Math.min(5, expected.size()), actual.size(), "prefix " + prefix);
+            for (int i = 0; i < actual.size(); i++) {
+                assertEquals(expected.get(i).getValue(), actual.get(i).weight(), "prefix " + prefix);
+            }
+        }
+        assertEquals(weights.size(), trie.size());
+    }
+}
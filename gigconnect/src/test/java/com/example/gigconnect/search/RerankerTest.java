@@ -0,0 +1,31 @@
+package com.example.gigconnect.search;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RerankerTest {
+
+    private final Reranker reranker = new Reranker(new Reranker.Weights(1.0, 0.5, 0.2, 0.1, 0.4, 50, 10));
+
+    @Test
+    void scoreSumsTheWeightedSignals() {
+        double[] contributions = new double[Reranker.SIGNALS.length];
+        double score = reranker.score(0.8, 4.0, 50, true, 10, contributions);
+
+        assertArrayEquals(new double[]{0.8, 0.4, 0.2, 0.1, 0.2}, contributions, 1e-9);
+        assertEquals(1.7, score, 1e-9);
+        // Missing signals add nothing, and review counts saturate
+        assertEquals(0.5 + 0.2, reranker.score(Double.NaN, 5.0, 5000, false, Double.NaN, null), 1e-9);
+        assertThrows(IllegalArgumentException.class, () -> new Reranker.Weights(1, 1, 1, 1, 1, 0, 10));
+    }
+
+    @Test
+    void orderIsDescendingAndStable() {
+        double[] scores = {0.2, 0.9, 0.5, 0.9, 0.1, 7.0};
+        assertArrayEquals(new int[]{1, 3, 2, 0, 4}, Reranker.order(scores, 5));
+        assertArrayEquals(new int[0], Reranker.order(scores, 0));
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.gigconnect.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SimilarityKernelTest {
+
+    @Test
+    void selectedKernelMatchesScalarLoops() {
+        SimilarityKernel scalar = SimilarityKernels.scalar();
+        SimilarityKernel selected = SimilarityKernels.get();
+        Random random = new Random(3);
+        // Lengths around the vector widths exercise both the lane loop and the tail
+        for (int dims : new int[]{1, 3, 7, 8, 15, 16, 17, 33, 384, 385}) {
+            float[] a = randomVector(random, dims);
+            float[] b = randomVector(random, dims);
+            assertEquals(scalar.dot(a, b), selected.dot(a, b), 1e-4f, selected.name() + " dot, dims " + dims);
+            assertEquals(scalar.cosine(a, b), selected.cosine(a, b), 1e-5f, selected.name() + " cosine, dims " + dims);
+        }
+        assertEquals(0f, selected.cosine(new float[16], randomVector(random, 16)));
+    }
+
+    @Test
+    void topKReturnsTheBestRowsOfTheBlock() {
+        Random random = new Random(11);
+        int dims = 24;
+        int rows = 500;
+        float[] query = randomVector(random, dims);
+        float[] block = new float[rows * dims];
+        for (int i = 0; i < block.length; i++) {
+            block[i] = random.nextFloat() * 2 - 1;
+        }
+
+        SimilarityKernel scalar = SimilarityKernels.scalar();
+        List<Integer> expected = IntStream.range(0, rows).boxed()
+                .sorted(Comparator.comparingDouble(row -> -scalar.dot(query, block, row * dims)))
+                .limit(10)
+                .toList();
+        List<Integer> actual = SimilarityKernels.get().topK(query, block, rows, 10).stream()
+                .map(SimilarityKernel.Match::index)
+                .toList();
+        assertEquals(expected, actual);
+        assertEquals(3, SimilarityKernels.get().topK(query, block, 3, 10).size());
+    }
+
+    private static float[] randomVector(Random random, int dims) {
+        float[] vector = new float[dims];
+        for (int i = 0; i < dims; i++) {
+            vector[i] = random.nextFloat() * 2 - 1;
+        }
+        return vector;
+    }
+}
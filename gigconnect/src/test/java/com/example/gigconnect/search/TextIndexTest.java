@@ -0,0 +1,69 @@
+package com.example.gigconnect.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TextIndexTest {
+
+    private static final String[] WORDS = {"plumbing", "web", "design", "React", "logo", "tutor", "C++", "home", "repair", "Java"};
+
+    @Test
+    void searchMatchesCaseInsensitiveSubstringScan() {
+        Random random = new Random(11);
+        TextIndex index = new TextIndex(2);
+        String[][] docs = new String[3000][];
+        for (int i = 0; i < docs.length; i++) {
+            docs[i] = new String[]{phrase(random), phrase(random)};
+            index.put("d" + i, docs[i]);
+        }
+        // Replace and remove a slice so tombstones and compaction are exercised
+        for (int i = 0; i < 2500; i++) {
+            if (i % 2 == 0) {
+                index.remove("d" + i);
+                docs[i] = null;
+            } else {
+                docs[i] = new String[]{phrase(random), phrase(random)};
+                index.put("d" + i, docs[i]);
+            }
+        }
+
+        for (String query : new String[]{"web", "DESIGN", "ai", "c+", "o", "pair ja", "logo tutor", "zzz", "+"}) {
+            Set<String> expected = new HashSet<>();
+            for (int i = 0; i < docs.length; i++) {
+                if (docs[i] != null && docs[i][0].toLowerCase(Locale.ROOT).contains(query.toLowerCase(Locale.ROOT))) {
+                    expected.add("d" + i);
+                }
+            }
+            assertEquals(expected, index.search(query, 0), "query " + query);
+        }
+        assertEquals(1750, index.size());
+    }
+
+    @Test
+    void searchOnlyLooksAtRequestedFields() {
+        TextIndex index = new TextIndex(2);
+        index.put("a", "Logo design", "Branding");
+        index.put("b", "Tutoring", "Design help");
+        assertEquals(Set.of("a"), index.search("design", 0));
+        assertEquals(Set.of("a", "b"), index.search("design", 0, 1));
+        assertTrue(index.search("  ", 0, 1).isEmpty());
+    }
+
+    private static String phrase(Random random) {
+        StringBuilder text = new StringBuilder();
+        for (int w = 0; w < 3; w++) {
+            if (w > 0) {
+                text.append(' ');
+            }
+            text.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return text.toString();
+    }
+}
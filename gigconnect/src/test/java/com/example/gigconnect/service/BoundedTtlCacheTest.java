@@ -0,0 +1,81 @@
+package com.example.gigconnect.service;
+
+import com.example.gigconnect.dto.PublicUserProfileDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BoundedTtlCacheTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void keepsTheMostRecentlyUsedEntriesAndSkipsNullsAndUncacheableValues() {
+        BoundedTtlCache<String, String> cache = new BoundedTtlCache<>("test.cache", true, 2, 60_000, meterRegistry);
+        cache.get("a", () -> load("A"));
+        cache.get("b", () -> load("B"));
+        cache.get("a", () -> load("A")); // Hit, so "b" is now the eldest
+        cache.get("c", () -> load("C"));
+
+        assertTrue(cache.contains("a"));
+        assertFalse(cache.contains("b"));
+        assertNull(cache.get("n", () -> null));
+        assertEquals("D", cache.get("d", () -> load("D"), value -> false));
+        assertFalse(cache.contains("d"));
+        assertEquals(4, loads.get());
+        assertEquals(1.0, meterRegistry.get("test.cache.evictions").counter().count());
+    }
+
+    @Test
+    void aValueLoadedAcrossAnEvictionIsNotCached() {
+        BoundedTtlCache<String, String> cache = new BoundedTtlCache<>("test.cache", true, 10, 60_000, meterRegistry);
+
+        String value = cache.get("a", () -> {
+            cache.evictIf((key, cached) -> true); // A write lands while the value is being loaded
+            return load("stale");
+        });
+
+        assertEquals("stale", value);
+        assertFalse(cache.contains("a"));
+    }
+
+    @Test
+    void expiredEntriesAreReloadedAndPurged() {
+        BoundedTtlCache<String, String> cache = new BoundedTtlCache<>("test.cache", true, 10, 0, meterRegistry);
+        cache.put("a", "A");
+        cache.purgeExpired();
+        assertEquals(0, cache.size());
+
+        cache.get("b", () -> load("B"));
+        cache.get("b", () -> load("B"));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void profileCacheHandsOutCopies() {
+        ProfileCache profileCache = new ProfileCache(true, 10, 60, meterRegistry);
+        PublicUserProfileDTO loaded = new PublicUserProfileDTO();
+        loaded.setId("u1");
+
+        PublicUserProfileDTO first = profileCache.get("u1", () -> loaded);
+        first.setScore(0.9);
+        PublicUserProfileDTO second = profileCache.get("u1", () -> null);
+
+        assertNotSame(loaded, first);
+        assertNotSame(first, second);
+        assertNull(second.getScore());
+    }
+
+    private String load(String value) {
+        loads.incrementAndGet();
+        return value;
+    }
+}
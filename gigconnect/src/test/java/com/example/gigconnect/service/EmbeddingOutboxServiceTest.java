@@ -0,0 +1,72 @@
+package com.example.gigconnect.service;
+
+import com.example.gigconnect.model.EmbeddingTask;
+import com.example.gigconnect.model.GigService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class EmbeddingOutboxServiceTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @InjectMocks
+    private EmbeddingOutboxService embeddingOutbox;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(embeddingOutbox, "batchSize", 50);
+    }
+
+    @Test
+    void reconcileQueuesUntrackedServicesWhoseVectorsDoNotMatchTheirText() {
+        GigService embedded = service("s1", "Plumbing", "Pipes");
+        embedded.setContentHash(GigServiceService.contentHash("Plumbing", "Pipes"));
+        GigService lostCreate = service("s2", "Wiring", "Cables");
+        GigService lostEdit = service("s3", "Painting", "Walls, now ceilings too");
+        lostEdit.setContentHash(GigServiceService.contentHash("Painting", "Walls"));
+        GigService alreadyQueued = service("s4", "Tiling", "Floors");
+        when(mongoTemplate.stream(any(Query.class), eq(GigService.class)))
+                .thenReturn(Stream.of(embedded, lostCreate, lostEdit, alreadyQueued));
+        EmbeddingTask task = new EmbeddingTask();
+        task.setId("s4");
+        when(mongoTemplate.find(any(Query.class), eq(EmbeddingTask.class))).thenReturn(List.of(task));
+
+        embeddingOutbox.reconcile();
+
+        ArgumentCaptor<Query> queued = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate, times(2)).upsert(queued.capture(), any(Update.class),
+                eq(EmbeddingTask.class));
+        assertEquals(List.of("s2", "s3"), queued.getAllValues().stream()
+                .map(query -> query.getQueryObject().get("_id"))
+                .toList());
+    }
+
+    private static GigService service(String id, String title, String description) {
+        GigService service = new GigService();
+        service.setId(id);
+        service.setTitle(title);
+        service.setDescription(description);
+        return service;
+    }
+}
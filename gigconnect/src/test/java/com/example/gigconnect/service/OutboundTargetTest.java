@@ -0,0 +1,92 @@
+package com.example.gigconnect.service;
+
+import com.example.gigconnect.exception.OutboundUnavailableException;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class OutboundTargetTest {
+
+    private final OutboundTarget target = new OutboundTarget("test", new RestTemplate(), 1, 2, 60_000);
+    private final AtomicInteger calls = new AtomicInteger();
+
+    @Test
+    void opensAfterConsecutiveOutagesAndRejectsWithoutCalling() {
+        fail(new ResourceAccessException("Connection refused", new IOException("refused")));
+        assertEquals(OutboundTarget.State.CLOSED, target.state());
+        fail(HttpServerErrorException.create(HttpStatus.SERVICE_UNAVAILABLE, "down", null, null, null));
+        assertEquals(OutboundTarget.State.OPEN, target.state());
+
+        assertThrows(OutboundUnavailableException.class, () -> target.call(calls::incrementAndGet));
+        assertEquals(2, calls.get());
+        assertEquals(1, target.count("rejected_open"));
+    }
+
+    @Test
+    void halfOpenTrialClosesOnSuccessAndReopensOnOutage() {
+        openThenExpire();
+        assertEquals(OutboundTarget.State.HALF_OPEN, target.state());
+        fail(new ResourceAccessException("Read timed out"));
+        assertEquals(OutboundTarget.State.OPEN, target.state());
+
+        ReflectionTestUtils.setField(target, "openedAt", 0L);
+        assertEquals("ok", target.call(() -> "ok"));
+        assertEquals(OutboundTarget.State.CLOSED, target.state());
+    }
+
+    @Test
+    void clientErrorsNeitherCountNorKeepTheTrial() {
+        for (int i = 0; i < 5; i++) {
+            fail(HttpClientErrorException.create(HttpStatus.BAD_REQUEST, "bad", null, null, null));
+        }
+        assertEquals(OutboundTarget.State.CLOSED, target.state());
+        assertEquals(0, target.count("failure"));
+        assertEquals(5, target.count("ignored"));
+
+        // A trial that hits a 4xx leaves the breaker half-open and lets the next call try
+        openThenExpire();
+        fail(HttpClientErrorException.create(HttpStatus.NOT_FOUND, "missing", null, null, null));
+        assertEquals(OutboundTarget.State.HALF_OPEN, target.state());
+        target.call(calls::incrementAndGet);
+        assertEquals(OutboundTarget.State.CLOSED, target.state());
+    }
+
+    @Test
+    void bulkheadRejectsCallsBeyondMaxConcurrent() {
+        int result = target.call(() -> {
+            assertEquals(1, target.inFlight());
+            assertThrows(OutboundUnavailableException.class, () -> target.call(calls::incrementAndGet));
+            return 7;
+        });
+
+        assertEquals(7, result);
+        assertEquals(0, calls.get());
+        assertEquals(1, target.count("rejected_full"));
+        assertEquals(0, target.inFlight());
+        // Bulkhead rejections are not outages
+        assertEquals(OutboundTarget.State.CLOSED, target.state());
+    }
+
+    private void openThenExpire() {
+        fail(new ResourceAccessException("Connection refused"));
+        fail(new ResourceAccessException("Connection refused"));
+        ReflectionTestUtils.setField(target, "openedAt", 0L);
+    }
+
+    private void fail(RuntimeException error) {
+        assertThrows(error.getClass(), () -> target.call(() -> {
+            calls.incrementAndGet();
+            throw error;
+        }));
+    }
+}
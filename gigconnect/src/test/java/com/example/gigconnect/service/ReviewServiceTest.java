@@ -0,0 +1,112 @@
+package com.example.gigconnect.service;
+
+import com.example.gigconnect.model.User;
+import com.example.gigconnect.repository.HireRequestRepository;
+import com.example.gigconnect.repository.UserRepository;
+import com.mongodb.client.result.UpdateResult;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationExpression;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReviewServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private HireRequestRepository hireRequestRepository;
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private SearchResultCache searchResultCache;
+
+    @Mock
+    private ProfileCache profileCache;
+
+    @InjectMocks
+    private ReviewService reviewService;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void backfillSelectsWorkersWhoseCountDoesNotMatchTheirReviews() {
+        when(mongoTemplate.updateMulti(any(Query.class), any(AggregationUpdate.class), eq(User.class)))
+                .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+
+        reviewService.backfillRatingAggregates();
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).updateMulti(query.capture(), any(AggregationUpdate.class), eq(User.class));
+        // A saved worker has reviewCount 0 rather than no field, so existence alone would skip it
+        Document filter = query.getValue().getQueryObject();
+        AggregationExpression expr = (AggregationExpression) ((List<Document>) filter.get("$and")).get(0).get("$expr");
+        assertEquals(new Document("$ne", List.of("$reviewCount", new Document("$size", "$reviews"))), expr.toDocument());
+    }
+
+    @Test
+    void aReviewIsPushedAndCountedInOneUpdate() {
+        when(mongoTemplate.findOne(any(Query.class), eq(User.class))).thenReturn(user("w1", "GIG_WORKER"));
+        when(userRepository.findByEmail("client@example.com")).thenReturn(user("c1", "CLIENT"));
+        when(hireRequestRepository.existsByClientIdAndGigWorkerIdAndServiceIdAndStatusAndWorkStatus(
+                "c1", "w1", "s1", "ACCEPTED", "COMPLETED")).thenReturn(true);
+        User reviewed = user("w1", "GIG_WORKER");
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(User.class))).thenReturn(reviewed);
+
+        assertSame(reviewed, reviewService.addReview("w1", "client@example.com", "Great", 4, "s1"));
+
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).findAndModify(any(Query.class), update.capture(), any(FindAndModifyOptions.class),
+                eq(User.class));
+        assertEquals(new Document("reviewCount", 1).append("ratingSum", 4),
+                update.getValue().getUpdateObject().get("$inc"));
+        verify(searchResultCache).evictWorker("w1");
+        verify(profileCache).evict("w1");
+    }
+
+    @Test
+    void onlyClientsWithACompletedHireCanReviewAWorker() {
+        when(mongoTemplate.findOne(any(Query.class), eq(User.class)))
+                .thenReturn(user("c2", "CLIENT"), user("w1", "GIG_WORKER"), user("w1", "GIG_WORKER"));
+        when(userRepository.findByEmail("worker@example.com")).thenReturn(user("w2", "GIG_WORKER"));
+        when(userRepository.findByEmail("client@example.com")).thenReturn(user("c1", "CLIENT"));
+
+        // The reviewed user is not a worker, the reviewer is not a client, there was no completed hire
+        assertThrows(RuntimeException.class, () -> reviewService.addReview("c2", "client@example.com", "", 4, "s1"));
+        assertThrows(RuntimeException.class, () -> reviewService.addReview("w1", "worker@example.com", "", 4, "s1"));
+        assertThrows(RuntimeException.class, () -> reviewService.addReview("w1", "client@example.com", "", 4, "s1"));
+
+        verify(mongoTemplate, never()).findAndModify(any(Query.class), any(Update.class),
+                any(FindAndModifyOptions.class), eq(User.class));
+    }
+
+    private static User user(String id, String role) {
+        User user = new User();
+        user.setId(id);
+        user.setRole(role);
+        return user;
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.gigconnect.service;
+
+import com.example.gigconnect.model.GigService;
+import com.example.gigconnect.model.SimilarServices;
+import com.example.gigconnect.repository.GigServiceRepository;
+import com.mongodb.client.result.UpdateResult;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SimilarServicesServiceTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private GigServiceRepository gigServiceRepository;
+
+    @InjectMocks
+    private SimilarServicesService similarServicesService;
+
+    private final AtomicInteger recomputations = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        Executor inline = task -> {
+            recomputations.incrementAndGet();
+            task.run();
+        };
+        ReflectionTestUtils.setField(similarServicesService, "similarServicesExecutor", inline);
+        ReflectionTestUtils.setField(similarServicesService, "k", 5);
+        ReflectionTestUtils.setField(similarServicesService, "batchSize", 10);
+    }
+
+    @Test
+    void requestComputeQueuesWithoutBumpingAQueuedRevision() {
+        when(gigServiceRepository.existsById("s1")).thenReturn(true);
+
+        similarServicesService.requestCompute("s1");
+
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).upsert(any(Query.class), update.capture(), eq(SimilarServices.class));
+        assertEquals(new Document("stale", true).append("revision", 1L),
+                update.getValue().getUpdateObject().get("$setOnInsert"));
+        verify(gigServiceRepository, never()).findNearestServices(any(), any(), any(), anyInt());
+
+        when(gigServiceRepository.existsById("missing")).thenReturn(false);
+        assertThrows(RuntimeException.class, () -> similarServicesService.requestCompute("missing"));
+    }
+
+    @Test
+    void refreshStaleRecomputesOnItsOwnPoolAndDropsDeletedServices() {
+        SimilarServices stale = task("s1");
+        SimilarServices deleted = task("gone");
+        GigService service = new GigService();
+        service.setId("s1");
+        service.setUserId("u1");
+        service.setServiceVector(new float[]{1, 0});
+        when(mongoTemplate.find(any(Query.class), eq(SimilarServices.class))).thenReturn(List.of(stale, deleted));
+        when(mongoTemplate.find(any(Query.class), eq(GigService.class))).thenReturn(List.of(service));
+        when(gigServiceRepository.findNearestServices(any(), any(), eq("s1"), eq(5))).thenReturn(List.of());
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(SimilarServices.class)))
+                .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+
+        similarServicesService.refreshStale();
+
+        assertEquals(1, recomputations.get());
+        verify(mongoTemplate).updateFirst(any(Query.class), any(Update.class), eq(SimilarServices.class));
+        verify(mongoTemplate).remove(any(Query.class), eq(SimilarServices.class));
+    }
+
+    private static SimilarServices task(String id) {
+        SimilarServices task = new SimilarServices();
+        task.setId(id);
+        task.setStale(true);
+        task.setRevision(1);
+        return task;
+    }
+}
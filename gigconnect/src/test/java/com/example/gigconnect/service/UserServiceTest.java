@@ -0,0 +1,280 @@
+package com.example.gigconnect.service;
+
+import com.example.gigconnect.dto.ProfilePageDTO;
+import com.example.gigconnect.dto.PublicUserProfileDTO;
+import com.example.gigconnect.dto.SemanticQueryDTO;
+import com.example.gigconnect.dto.UserProfileUpdateDTO;
+import com.example.gigconnect.repository.GigServiceRepository;
+import com.example.gigconnect.model.GigService;
+import com.example.gigconnect.model.User;
+import com.example.gigconnect.repository.SimilarServicesRepository;
+import com.example.gigconnect.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.stubbing.Answer;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class UserServiceTest {
+
+    @Mock
+    private SimilarServicesRepository similarServicesRepository;
+
+    @Mock
+    private SimilarServicesService similarServicesService;
+
+    @Mock
+    private SearchReranker searchReranker;
+
+    @Mock
+    private GigServiceRepository gigServiceRepository;
+
+    @Mock
+    private EmbeddingService embeddingService;
+
+    @Mock
+    private SearchResultCache searchResultCache;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private WorkerFieldsService workerFieldsService;
+
+    @InjectMocks
+    private UserService userService;
+
+    // Stands in for the real weights: reverses the candidates, so the best vector hit ends up last
+    private final Answer<List<PublicUserProfileDTO>> reverse = invocation -> {
+        List<PublicUserProfileDTO> reversed = new ArrayList<>(invocation.getArgument(0));
+        Collections.reverse(reversed);
+        for (int i = 0; i < reversed.size(); i++) {
+            reversed.get(i).setRankScore((double) (reversed.size() - i));
+        }
+        return reversed;
+    };
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(userService, "searchExecutor", (Executor) Runnable::run);
+        ReflectionTestUtils.setField(userService, "rrfK", 60);
+        ReflectionTestUtils.setField(userService, "defaultPageSize", 20);
+        ReflectionTestUtils.setField(userService, "maxPageSize", 100);
+        ReflectionTestUtils.setField(userService, "maxBatchQueries", 20);
+    }
+
+    @Test
+    void recommendationsForAnUncomputedServiceAreQueuedNotComputedInline() {
+        when(similarServicesRepository.findRecommendedWorkers("s1")).thenReturn(List.of());
+        when(similarServicesRepository.existsById("s1")).thenReturn(false);
+        when(searchReranker.rerank(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        List<PublicUserProfileDTO> recommendations = userService.getRecommendedWorkers("s1");
+
+        assertTrue(recommendations.isEmpty());
+        verify(similarServicesService).requestCompute("s1");
+        // Served from the single read; the list is not re-read after queueing
+        verify(similarServicesRepository).findRecommendedWorkers("s1");
+    }
+
+    @Test
+    void bulkProfilesKeepTheRequestedOrderAndLoadOnlyCacheMisses() {
+        ProfileCache profileCache = new ProfileCache(true, 100, 60, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(userService, "profileCache", profileCache);
+        ReflectionTestUtils.setField(userService, "maxBulkProfiles", 5);
+        PublicUserProfileDTO cached = hit("w1", null);
+        cached.setName("cached");
+        profileCache.get("w1", () -> cached);
+        when(userRepository.findAllById(List.of("w2", "c1", "w3")))
+                .thenReturn(List.of(user("c1", "CLIENT"), user("w2", "GIG_WORKER")));
+        GigService service = new GigService();
+        service.setId("s2");
+        service.setUserId("w2");
+        service.setTitle("Plumbing");
+        service.setServiceVector(new float[]{1, 0});
+        service.setFallbackVector(new float[]{0, 1});
+        service.setWorkerCity("pune");
+        when(gigServiceRepository.findByUserIdIn(List.of("w2", "c1", "w3"))).thenReturn(List.of(service));
+
+        // Duplicates and blanks are dropped; the client and the unknown id have no public profile
+        List<PublicUserProfileDTO> profiles = userService.getPublicProfiles(List.of("w2", "w1", "w2", " ", "c1", "w3"));
+
+        assertEquals(List.of("w2", "w1"), ids(profiles));
+        assertEquals("cached", profiles.get(1).getName());
+        // Cards carry the service, not its embeddings or the worker fields copied for search
+        GigService card = profiles.get(0).getServices().get(0);
+        assertEquals("Plumbing", card.getTitle());
+        assertNull(card.getServiceVector());
+        assertNull(card.getFallbackVector());
+        assertNull(card.getWorkerCity());
+        // The worker is cached now, the client was not
+        assertEquals(List.of("w2"), ids(userService.getPublicProfiles(List.of("w2"))));
+        verify(userRepository).findAllById(List.of("w2", "c1", "w3"));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> userService.getPublicProfiles(List.of("a", "b", "c", "d", "e", "f")));
+    }
+
+    @Test
+    void aProfileUpdateSetsOnlyTheEditedFieldsAndReportsTheSave() {
+        ReflectionTestUtils.setField(userService, "profileCache", new ProfileCache(true, 100, 60, new SimpleMeterRegistry()));
+        when(userRepository.findByEmail("w1@example.com")).thenReturn(user("w1", "GIG_WORKER"));
+        User updated = user("w1", "GIG_WORKER");
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(User.class))).thenReturn(updated);
+        UserProfileUpdateDTO edit = new UserProfileUpdateDTO();
+        edit.setCity("Pune");
+        edit.setOpenToWork(true);
+
+        assertSame(updated, userService.updateProfile("w1@example.com", edit));
+
+        // A whole-document save would race with reviews and reset their aggregates
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).findAndModify(any(Query.class), update.capture(), any(FindAndModifyOptions.class),
+                eq(User.class));
+        assertEquals(new Document("openToWork", true).append("city", "Pune"), update.getValue().getUpdateObject().get("$set"));
+        verify(userRepository, never()).save(any());
+        verify(eventPublisher).publishEvent(any(AfterSaveEvent.class));
+        verify(workerFieldsService).propagate(updated);
+    }
+
+    @Test
+    void semanticPagesAreCutFromTheWholeRerankedTopK() {
+        when(embeddingService.embed("plumber")).thenReturn(new EmbeddingService.Embedding(new float[]{1, 0}, "m"));
+        when(searchResultCache.load(any(), any())).thenAnswer(invocation -> ((SearchResultCache.Loaded)
+                invocation.<Supplier<?>>getArgument(1).get()).page());
+        when(searchReranker.maxCandidates()).thenReturn(100);
+        when(searchReranker.rerank(anyList())).thenAnswer(reverse);
+        when(gigServiceRepository.searchGigWorkersByVector(any(), eq("m"), eq(false), isNull(), isNull(), isNull(),
+                isNull(), isNull(), eq(100))).thenAnswer(invocation -> List.of(hit("a", 0.9), hit("b", 0.8), hit("c", 0.7)));
+
+        ProfilePageDTO first = userService.searchGigWorkersSemantic("plumber", null, null, null, null, 2, null);
+        ProfilePageDTO second = userService.searchGigWorkersSemantic("plumber", null, null, null, null, 2,
+                first.getNextCursor());
+
+        // The best vector hit was re-ranked from the first page to the last one
+        assertEquals(List.of("c", "b"), ids(first.getItems()));
+        assertNotNull(first.getNextCursor());
+        assertEquals(List.of("a"), ids(second.getItems()));
+        assertNull(second.getNextCursor());
+    }
+
+    @Test
+    void aFallbackQuerySearchesTheFallbackVectorsAndIsNotCached() {
+        when(embeddingService.embed("plumber"))
+                .thenReturn(new EmbeddingService.Embedding(new float[]{1, 0}, "local-hashing-384", true));
+        List<SearchResultCache.Loaded> loaded = new ArrayList<>();
+        when(searchResultCache.load(any(), any())).thenAnswer(invocation -> {
+            loaded.add((SearchResultCache.Loaded) invocation.<Supplier<?>>getArgument(1).get());
+            return loaded.get(0).page();
+        });
+        when(searchReranker.maxCandidates()).thenReturn(100);
+        when(searchReranker.rerank(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(gigServiceRepository.searchGigWorkersByVector(any(), any(), eq(true), any(), any(), any(), any(), isNull(),
+                eq(100))).thenReturn(List.of(hit("a", 0.6)));
+
+        ProfilePageDTO page = userService.searchGigWorkersSemantic("plumber", null, null, null, null, 2, null);
+
+        assertEquals(List.of("a"), ids(page.getItems()));
+        assertFalse(loaded.get(0).cacheable());
+    }
+
+    @Test
+    void aBatchEmbedsOnlyTheKeywordsWithoutACachedRanking() {
+        when(searchResultCache.contains(SearchResultCache.key(SearchResultCache.SEMANTIC, "plumber", null, null, null,
+                null, 0, null))).thenReturn(true);
+        when(embeddingService.embedAsync("electrician")).thenReturn(CompletableFuture.completedFuture(
+                new EmbeddingService.Embedding(new float[]{0, 1}, "m")));
+        when(searchResultCache.load(any(), any())).thenAnswer(invocation -> new ProfilePageDTO(List.of(hit("a", 0.9)), null));
+
+        List<ProfilePageDTO> pages = userService.searchGigWorkersSemanticBatch(List.of(query("plumber"), query("electrician")));
+
+        assertEquals(2, pages.size());
+        verify(embeddingService, never()).embedAsync("plumber");
+        verify(embeddingService).embedAsync("electrician");
+    }
+
+    @Test
+    void hybridReranksTheFusedCandidatesBeforeCuttingThePage() {
+        when(embeddingService.embed("plumber")).thenReturn(new EmbeddingService.Embedding(new float[]{1, 0}, "m"));
+        when(searchReranker.maxCandidates()).thenReturn(100);
+        when(searchReranker.rerank(anyList())).thenAnswer(reverse);
+        when(gigServiceRepository.searchGigWorkers(eq("plumber"), any(), any(), any(), any(), isNull(), eq(100)))
+                .thenReturn(List.of(hit("a", null), hit("b", null)));
+        when(gigServiceRepository.searchGigWorkersByVector(any(), eq("m"), eq(false), any(), any(), any(), any(), isNull(),
+                eq(100)))
+                .thenReturn(List.of(hit("b", 0.9), hit("c", 0.8)));
+
+        List<PublicUserProfileDTO> profiles = userService.searchGigWorkersHybrid("plumber", null, null, null, null, 2);
+
+        // Fused order is b, a, c; the reversed re-ranking puts c first
+        assertEquals(List.of("c", "a"), ids(profiles));
+        // Scores are fused scores on [0, 1], not the raw retriever scores
+        assertTrue(profiles.stream().allMatch(profile -> profile.getScore() > 0 && profile.getScore() < 1));
+    }
+
+    private static PublicUserProfileDTO hit(String id, Double score) {
+        PublicUserProfileDTO profile = new PublicUserProfileDTO();
+        profile.setId(id);
+        profile.setScore(score);
+        return profile;
+    }
+
+    private static User user(String id, String role) {
+        User user = new User();
+        user.setId(id);
+        user.setRole(role);
+        return user;
+    }
+
+    private static SemanticQueryDTO query(String keyword) {
+        SemanticQueryDTO query = new SemanticQueryDTO();
+        query.setKeyword(keyword);
+        return query;
+    }
+
+    private static List<String> ids(List<PublicUserProfileDTO> profiles) {
+        return profiles.stream().map(PublicUserProfileDTO::getId).toList();
+    }
+}